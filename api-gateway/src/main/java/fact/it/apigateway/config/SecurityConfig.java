@@ -1,31 +1,90 @@
 package fact.it.apigateway.config;
 
+import fact.it.apigateway.security.AdminRoleConverter;
+import fact.it.apigateway.security.CachingReactiveJwtDecoder;
+import fact.it.apigateway.security.JwkSetCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.function.client.WebClient;
 
-import static org.springframework.security.config.Customizer.withDefaults;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity) {
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity,
+                                                            @Value("${gateway.admin.emails:}") List<String> adminEmails) {
+        JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+        authenticationConverter.setJwtGrantedAuthoritiesConverter(new AdminRoleConverter(adminEmails));
         serverHttpSecurity
                 .authorizeExchange(exchange ->
                         exchange.pathMatchers(
                                 HttpMethod.GET,"/motorbikes/**")
                                 .permitAll()
+                                // Scraped by Prometheus and probed by the orchestrator without a token
+                                .pathMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus")
+                                .permitAll()
+                                // Bulk id checks the services make among themselves, not part of the public API
+                                .pathMatchers(HttpMethod.POST, "/clients/existing", "/motorbikes/existing",
+                                        "/reservations/existing", "/reservations/archived")
+                                .denyAll()
+                                .pathMatchers("/admin/**")
+                                .hasRole(AdminRoleConverter.ADMIN)
                                 .anyExchange()
                                 .authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(withDefaults())
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(
+                                new ReactiveJwtAuthenticationConverterAdapter(authenticationConverter)))
                 );
         return serverHttpSecurity.build();
     }
+
+    // Keys come from gateway.jwt.jwk-set-file when set (no network needed), otherwise from jwk-set-uri
+    @Bean
+    public JwkSetCache jwkSetCache(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                                   @Value("${gateway.jwt.jwk-set-file:}") String jwkSetFile,
+                                   @Value("${gateway.jwt.jwk-refresh-interval:5m}") Duration refreshInterval,
+                                   @Value("${gateway.jwt.jwk-min-refresh-interval:30s}") Duration minRefreshInterval,
+                                   WebClient.Builder webClientBuilder) {
+        return new JwkSetCache(jwkSetUri, jwkSetFile, refreshInterval, minRefreshInterval, webClientBuilder);
+    }
+
+    // Besides the issuer, a token must be meant for this gateway: its aud has to name one of the
+    // configured audiences (the Google client id). Without one the gateway could accept no token
+    // at all, so it refuses to start instead.
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(JwkSetCache jwkSetCache,
+                                         @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+                                         @Value("${spring.security.oauth2.resourceserver.jwt.audiences:}") List<String> audiences,
+                                         @Value("${gateway.jwt.token-cache.max-entries:100000}") long maxEntries,
+                                         @Value("${gateway.jwt.token-cache.max-ttl:1h}") Duration maxTtl) {
+        if (audiences.stream().allMatch(String::isBlank)) {
+            throw new IllegalStateException("No JWT audience configured: set GOOGLE_CLIENT_ID "
+                    + "(spring.security.oauth2.resourceserver.jwt.audiences)");
+        }
+        NimbusReactiveJwtDecoder verifier = NimbusReactiveJwtDecoder.withJwkSource(jwkSetCache::keysFor).build();
+        verifier.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuerUri),
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                        aud -> aud != null && !Collections.disjoint(aud, audiences))));
+        return new CachingReactiveJwtDecoder(verifier, maxEntries, maxTtl);
+    }
 }
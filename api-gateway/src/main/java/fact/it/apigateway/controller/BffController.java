@@ -0,0 +1,52 @@
+package fact.it.apigateway.controller;
+
+import fact.it.apigateway.service.AggregationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/bff")
+public class BffController {
+
+    private final AggregationService aggregationService;
+
+    public BffController(AggregationService aggregationService) {
+        this.aggregationService = aggregationService;
+    }
+
+    @GetMapping("/reservations")
+    public Mono<Map<String, Object>> getReservationsPage(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return aggregationService.reservationsPage(authorization);
+    }
+
+    @GetMapping("/reservations/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> getReservation(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return toResponse(aggregationService.reservationView(id, authorization), "reservation");
+    }
+
+    @GetMapping("/payments/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> getPayment(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return toResponse(aggregationService.paymentView(id, authorization), "payment");
+    }
+
+    // 404 when the main resource doesn't exist, 502 when it couldn't be fetched at all
+    private static Mono<ResponseEntity<Map<String, Object>>> toResponse(Mono<Map<String, Object>> view, String mainPart) {
+        return view
+                .map(body -> body.containsKey(mainPart)
+                        ? ResponseEntity.ok(body)
+                        : ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(body))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
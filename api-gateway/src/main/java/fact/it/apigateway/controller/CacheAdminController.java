@@ -0,0 +1,32 @@
+package fact.it.apigateway.controller;
+
+import fact.it.apigateway.filter.ResponseCacheStore;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheAdminController {
+
+    private final ResponseCacheStore responseCacheStore;
+
+    public CacheAdminController(ResponseCacheStore responseCacheStore) {
+        this.responseCacheStore = responseCacheStore;
+    }
+
+    @GetMapping
+    public Map<String, Long> getCacheSize() {
+        return Map.of("entries", responseCacheStore.size());
+    }
+
+    // Without a prefix the whole cache is purged, e.g. DELETE /admin/cache?prefix=/motorbikes/3
+    @DeleteMapping
+    public Map<String, Long> purgeCache(@RequestParam(required = false) String prefix) {
+        return Map.of("purged", responseCacheStore.purge(prefix));
+    }
+}
@@ -0,0 +1,177 @@
+package fact.it.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-flight for identical concurrent GETs: while one request for a key is in flight upstream,
+// later identical requests wait for it and get a copy of its response instead of calling the
+// backend themselves. Nothing is kept once the leader's response has been written. Headers that
+// belong to the leader's exchange (see SharedResponseHeaders) are not copied.
+//   filters:
+//     - name: Coalesce
+//       args:
+//         includeAuthorization: true
+// With includeAuthorization (the default) only requests carrying the same Authorization header
+// are coalesced, so user-specific responses are never shared across users.
+@Component
+public class CoalesceGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final Map<String, Mono<Captured>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public CoalesceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    record Captured(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("includeAuthorization");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "" : config.getRouteId();
+        Counter leaders = Counter.builder("gateway.coalescing.requests")
+                .tag("route", routeId).tag("role", "leader").register(meterRegistry);
+        Counter followers = Counter.builder("gateway.coalescing.requests")
+                .tag("route", routeId).tag("role", "follower").register(meterRegistry);
+        Gauge.builder("gateway.coalescing.ratio", () -> {
+            double total = leaders.count() + followers.count();
+            return total == 0 ? 0 : followers.count() / total;
+        }).tag("route", routeId).register(meterRegistry);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            // Conditional requests may get a 304 that isn't valid for the other waiters
+            if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)
+                    || request.getHeaders().containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+                return chain.filter(exchange);
+            }
+            String key = key(routeId, request, config);
+            Sinks.One<Captured> result = Sinks.one();
+            Mono<Captured> shared = result.asMono();
+            Mono<Captured> leader = inFlight.putIfAbsent(key, shared);
+            if (leader != null) {
+                followers.increment();
+                // If the leader's response can't be shared, make the call ourselves
+                return leader
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(captured -> captured.isPresent()
+                                ? write(exchange.getResponse(), captured.get())
+                                : chain.filter(exchange));
+            }
+            leaders.increment();
+
+            ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    return DataBufferUtils.join(body)
+                            .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                            .flatMap(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                inFlight.remove(key, shared);
+                                if (bytes.length <= config.getMaxBodyBytes()) {
+                                    // Followers keep their own rate-limit state, cookies and trace ids
+                                    HttpStatusCode status = getStatusCode();
+                                    result.tryEmitValue(new Captured(status == null ? HttpStatusCode.valueOf(200) : status,
+                                            SharedResponseHeaders.copyOf(getHeaders()), bytes));
+                                }
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            });
+                }
+            };
+            return chain.filter(exchange.mutate().response(capturing).build())
+                    .doFinally(signal -> {
+                        // Error, cancellation or an oversized body: release the followers
+                        inFlight.remove(key, shared);
+                        result.tryEmitEmpty();
+                    });
+        }, ORDER);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, Captured captured) {
+        response.setStatusCode(captured.status());
+        response.getHeaders().putAll(captured.headers());
+        response.getHeaders().setContentLength(captured.body().length);
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(captured.body())));
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, Config config) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        if (config.isIncludeAuthorization()) {
+            key.append(' ').append(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        }
+        return key.toString();
+    }
+
+    public static class Config implements HasRouteId {
+        private boolean includeAuthorization = true;
+        private int maxBodyBytes = 1024 * 1024;
+        private String routeId;
+
+        public boolean isIncludeAuthorization() {
+            return includeAuthorization;
+        }
+
+        public void setIncludeAuthorization(boolean includeAuthorization) {
+            this.includeAuthorization = includeAuthorization;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package fact.it.apigateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Caches successful GET responses of a route, keyed by path and query.
+//   filters:
+//     - name: ResponseCache
+//       args:
+//         ttl: 30s
+// Upstream Cache-Control (no-store, private, no-cache, max-age, s-maxage) is honored and
+// stale entries with an ETag are revalidated with If-None-Match; a no-cache response is stored
+// only when it has an ETag, and is revalidated on every use. A response with Vary is only
+// served to requests with the same values for those headers (Vary: * is never stored). Any
+// non-GET request on the route drops that route's cached entries.
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    // Must wrap the response before NettyWriteResponseFilter writes it, and sit in front of
+    // request coalescing so only cache misses are coalesced
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)\\s*=\\s*(\\d+)");
+
+    private final ResponseCacheStore store;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String routeId = routeId(exchange);
+            HttpMethod method = request.getMethod();
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || method == HttpMethod.TRACE) {
+                return chain.filter(exchange);
+            }
+            if (method != HttpMethod.GET) {
+                return chain.filter(exchange).doOnSuccess(done -> {
+                    HttpStatus status = HttpStatus.resolve(statusOf(exchange.getResponse()));
+                    if (status != null && status.is2xxSuccessful()) {
+                        store.invalidateRoute(routeId);
+                    }
+                });
+            }
+
+            String key = cacheKey(request);
+            long now = System.nanoTime();
+            ResponseCacheStore.Entry stored = bypassCache(request) ? null : store.get(key);
+            ResponseCacheStore.Entry cached = stored != null && stored.matches(request.getHeaders()) ? stored : null;
+            if (cached != null && cached.isFresh(now)) {
+                store.recordHit(cached);
+                return writeCached(exchange, cached, "HIT");
+            }
+            store.recordMiss();
+
+            // Revalidate a stale entry only if the client didn't send its own validator
+            ResponseCacheStore.Entry stale = cached != null && cached.etag() != null
+                    && !request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH) ? cached : null;
+            ServerWebExchange upstreamExchange = exchange;
+            if (stale != null) {
+                upstreamExchange = exchange.mutate()
+                        .request(request.mutate().header(HttpHeaders.IF_NONE_MATCH, stale.etag()).build())
+                        .build();
+            }
+            ServerHttpResponse response = exchange.getResponse();
+            ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(response) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    int status = statusOf(getDelegate());
+                    long upstreamNanos = System.nanoTime() - now;
+                    if (stale != null && status == HttpStatus.NOT_MODIFIED.value()) {
+                        store.recordRevalidation();
+                        // A 304 without Cache-Control leaves the stored response's directives in force
+                        HttpHeaders directives = getHeaders().getCacheControl() != null ? getHeaders() : stale.headers();
+                        store.put(key, stale.refreshed(System.nanoTime(), freshNanos(directives, config)));
+                        return Flux.from(body).doOnNext(DataBufferUtils::release)
+                                .then(writeCachedBody(getDelegate(), stale, "REVALIDATED"));
+                    }
+                    long fresh = freshNanos(getHeaders(), config);
+                    String etag = getHeaders().getETag();
+                    if (status != HttpStatus.OK.value() || !storable(getHeaders()) || (fresh <= 0 && etag == null)) {
+                        return super.writeWith(body);
+                    }
+                    Map<String, List<String>> vary = varyValues(getHeaders(), request.getHeaders());
+                    return DataBufferUtils.join(body)
+                            .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                            .flatMap(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                if (store.fits(bytes.length)) {
+                                    store.put(key, new ResponseCacheStore.Entry(routeId, status,
+                                            cacheableHeaders(getHeaders()), bytes, etag, vary,
+                                            System.nanoTime(), fresh, config.getTtl().toNanos(), upstreamNanos));
+                                }
+                                getHeaders().set(CACHE_HEADER, "MISS");
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            });
+                }
+            };
+            return chain.filter(upstreamExchange.mutate().response(decorated).build());
+        }, ORDER);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, ResponseCacheStore.Entry entry, String outcome) {
+        ServerHttpResponse response = exchange.getResponse();
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (entry.etag() != null && entry.etag().equals(ifNoneMatch)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(entry.etag());
+            response.getHeaders().set(CACHE_HEADER, outcome);
+            return response.setComplete();
+        }
+        return writeCachedBody(response, entry, outcome);
+    }
+
+    private static Mono<Void> writeCachedBody(ServerHttpResponse response, ResponseCacheStore.Entry entry, String outcome) {
+        response.setStatusCode(HttpStatusCode.valueOf(entry.status()));
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(entry.headers());
+        headers.setContentLength(entry.body().length);
+        headers.set(CACHE_HEADER, outcome);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private static int statusOf(ServerHttpResponse response) {
+        return response.getStatusCode() == null ? HttpStatus.OK.value() : response.getStatusCode().value();
+    }
+
+    // Freshness lifetime in nanos: the route TTL, capped by upstream max-age; 0 means every use
+    // must be revalidated first
+    static long freshNanos(HttpHeaders headers, Config config) {
+        long ttl = config.getTtl().toNanos();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return ttl;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains("no-cache")) {
+            return 0;
+        }
+        Matcher matcher = MAX_AGE.matcher(directives);
+        if (matcher.find()) {
+            return Math.min(ttl, Duration.ofSeconds(Long.parseLong(matcher.group(1))).toNanos());
+        }
+        return ttl;
+    }
+
+    // A shared cache must not keep private or no-store responses, per-user cookies, or a response
+    // that varies on something other than request headers
+    static boolean storable(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return false;
+            }
+        }
+        return !headers.containsKey(HttpHeaders.SET_COOKIE) && !headers.getVary().contains("*");
+    }
+
+    // The request's values for each header the response varies on
+    private static Map<String, List<String>> varyValues(HttpHeaders response, HttpHeaders request) {
+        Map<String, List<String>> vary = new LinkedHashMap<>();
+        for (String name : response.getVary()) {
+            vary.put(name, List.copyOf(request.getOrDefault(name, List.of())));
+        }
+        return vary;
+    }
+
+    private static boolean bypassCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static HttpHeaders cacheableHeaders(HttpHeaders upstream) {
+        return HttpHeaders.readOnlyHttpHeaders(SharedResponseHeaders.copyOf(upstream));
+    }
+
+    static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query == null ? request.getPath().value() : request.getPath().value() + "?" + query;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? "" : route.getId();
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package fact.it.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Shared, size-bounded store behind the ResponseCache route filter.
+// Entries with an ETag are kept for revalidateNanos after they go stale, so they can be
+// revalidated with If-None-Match instead of being fetched again. One variant is kept per key:
+// vary holds the request headers the response varied on, and a request with other values misses.
+@Component
+public class ResponseCacheStore {
+
+    public record Entry(String routeId, int status, HttpHeaders headers, byte[] body, String etag,
+                        Map<String, List<String>> vary, long storedAtNanos, long freshNanos,
+                        long revalidateNanos, long upstreamNanos) {
+
+        boolean isFresh(long nowNanos) {
+            return nowNanos - storedAtNanos < freshNanos;
+        }
+
+        boolean matches(HttpHeaders requestHeaders) {
+            for (Map.Entry<String, List<String>> header : vary.entrySet()) {
+                if (!header.getValue().equals(requestHeaders.getOrDefault(header.getKey(), List.of()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Entry refreshed(long nowNanos, long freshNanos) {
+            return new Entry(routeId, status, headers, body, etag, vary, nowNanos, freshNanos, revalidateNanos,
+                    upstreamNanos);
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+    private final long maxEntryBytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+    private final Timer latencySaved;
+
+    public ResponseCacheStore(@Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${gateway.response-cache.max-entry-bytes:1048576}") long maxEntryBytes,
+                              MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> key.length() + entry.body().length)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.etag() == null ? entry.freshNanos() : entry.freshNanos() + entry.revalidateNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("gateway.response.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gateway.response.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.revalidations = Counter.builder("gateway.response.cache.requests").tag("result", "revalidated")
+                .register(meterRegistry);
+        this.latencySaved = Timer.builder("gateway.response.cache.latency.saved")
+                .description("Upstream latency avoided by serving a cached response")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.hit.ratio", this, ResponseCacheStore::hitRatio).register(meterRegistry);
+        Gauge.builder("gateway.response.cache.size", cache, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public boolean fits(long bodyBytes) {
+        return bodyBytes <= maxEntryBytes;
+    }
+
+    public void put(String key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    public void recordHit(Entry entry) {
+        hits.increment();
+        latencySaved.record(entry.upstreamNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    public void invalidateRoute(String routeId) {
+        cache.asMap().values().removeIf(entry -> entry.routeId().equals(routeId));
+    }
+
+    public long purge(String pathPrefix) {
+        long before = cache.estimatedSize();
+        if (pathPrefix == null || pathPrefix.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(key -> key.startsWith(pathPrefix));
+        }
+        cache.cleanUp();
+        return Math.max(0, before - cache.estimatedSize());
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + revalidations.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+}
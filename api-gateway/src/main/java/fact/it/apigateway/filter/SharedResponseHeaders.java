@@ -0,0 +1,39 @@
+package fact.it.apigateway.filter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Response headers that describe one exchange rather than the resource. A response the gateway
+// hands to another request (a cache hit, a coalesced follower) is copied without them: hop-by-hop
+// headers, cookies, the caller's rate-limit state, cache/coalescing status and tracing ids.
+final class SharedResponseHeaders {
+
+    private static final Set<String> PER_REQUEST = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "te", "trailer", "transfer-encoding", "upgrade",
+            "date", "set-cookie", "set-cookie2", "retry-after", "traceparent", "tracestate", "b3", "x-request-id",
+            ResponseCacheGatewayFilterFactory.CACHE_HEADER.toLowerCase(Locale.ROOT),
+            CoalesceGatewayFilterFactory.COALESCED_HEADER.toLowerCase(Locale.ROOT));
+
+    private static final List<String> PER_REQUEST_PREFIXES = List.of("x-ratelimit-", "x-b3-");
+
+    private SharedResponseHeaders() {
+    }
+
+    static HttpHeaders copyOf(HttpHeaders headers) {
+        HttpHeaders shared = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!isPerRequest(name)) {
+                shared.addAll(name, values);
+            }
+        });
+        return shared;
+    }
+
+    static boolean isPerRequest(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return PER_REQUEST.contains(lower) || PER_REQUEST_PREFIXES.stream().anyMatch(lower::startsWith);
+    }
+}
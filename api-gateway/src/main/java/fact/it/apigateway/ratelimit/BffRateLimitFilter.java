@@ -0,0 +1,49 @@
+package fact.it.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// RequestRateLimiter only applies to routes, and /bff/** is served by BffController inside the
+// gateway, so this filter puts the same in-memory limit in front of it, keyed by user or IP.
+// Each BFF call fans out to several services, hence its own, lower default limit.
+@Component
+public class BffRateLimitFilter implements WebFilter {
+
+    public static final String ROUTE_ID = "bff";
+    private static final String PATH_PREFIX = "/bff/";
+
+    private final InMemoryRateLimiter rateLimiter;
+    private final PrincipalOrIpKeyResolver keyResolver;
+
+    public BffRateLimitFilter(InMemoryRateLimiter rateLimiter, PrincipalOrIpKeyResolver keyResolver,
+                              @Value("${gateway.bff.rate-limit.replenish-rate:10}") int replenishRate,
+                              @Value("${gateway.bff.rate-limit.burst-capacity:20}") int burstCapacity) {
+        this.rateLimiter = rateLimiter;
+        this.keyResolver = keyResolver;
+        rateLimiter.getConfig().put(ROUTE_ID, new InMemoryRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().pathWithinApplication().value().startsWith(PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        return keyResolver.resolve(exchange)
+                .flatMap(key -> rateLimiter.isAllowed(ROUTE_ID, key))
+                .flatMap(response -> {
+                    response.getHeaders().forEach(exchange.getResponse().getHeaders()::add);
+                    if (response.isAllowed()) {
+                        return chain.filter(exchange);
+                    }
+                    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    return exchange.getResponse().setComplete();
+                });
+    }
+}
@@ -0,0 +1,135 @@
+package fact.it.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket rate limiter for UserRateLimit (RequestRateLimiter) that keeps its state in the gateway's memory.
+// Each bucket is a single AtomicLong holding the bucket's "theoretical arrival time" (GCRA), so
+// a check is one cache lookup plus a CAS loop, without locks. What a check allocates is the
+// bucket key, the Response and its small immutable header map (the values change per request).
+// Buckets live in a size-bounded cache and are dropped once idle long enough to be full again.
+//   filters:
+//     - name: UserRateLimit
+//       args:
+//         in-memory-rate-limiter.replenishRate: 20
+//         in-memory-rate-limiter.burstCapacity: 40
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Cache<String, AtomicLong> buckets;
+    private final Config defaultConfig;
+
+    @Autowired
+    public InMemoryRateLimiter(ConfigurationService configurationService,
+                               @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${gateway.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.defaultConfig = new Config();
+    }
+
+    // For tests and programmatic use
+    public InMemoryRateLimiter(int replenishRate, int burstCapacity) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, null);
+        this.buckets = Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(Duration.ofMinutes(10)).build();
+        this.defaultConfig = new Config().setReplenishRate(replenishRate).setBurstCapacity(burstCapacity);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        return Mono.just(check(routeId, id, System.nanoTime()));
+    }
+
+    Response check(String routeId, String id, long now) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        if (config.getReplenishRate() <= 0) {
+            return response(false, 0, config, NANOS_PER_SECOND);
+        }
+        long interval = NANOS_PER_SECOND / config.getReplenishRate();
+        long capacity = interval * config.getBurstCapacity();
+        long cost = interval * config.getRequestedTokens();
+        AtomicLong tat = buckets.get(routeId + '|' + id, key -> new AtomicLong(now));
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + cost;
+            long used = next - now;
+            if (used > capacity) {
+                long waitNanos = used - capacity;
+                long remaining = Math.max(0, (capacity - (Math.max(current, now) - now)) / interval);
+                return response(false, remaining, config, waitNanos);
+            }
+            if (tat.compareAndSet(current, next)) {
+                return response(true, (capacity - used) / interval, config, 0);
+            }
+        }
+    }
+
+    private static Response response(boolean allowed, long remaining, Config config, long waitNanos) {
+        String replenishRate = Integer.toString(config.getReplenishRate());
+        String burstCapacity = Integer.toString(config.getBurstCapacity());
+        if (allowed) {
+            return new Response(true, Map.of(REMAINING_HEADER, Long.toString(remaining),
+                    REPLENISH_RATE_HEADER, replenishRate, BURST_CAPACITY_HEADER, burstCapacity));
+        }
+        long seconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        return new Response(false, Map.of(REMAINING_HEADER, Long.toString(remaining),
+                REPLENISH_RATE_HEADER, replenishRate, BURST_CAPACITY_HEADER, burstCapacity,
+                RETRY_AFTER_HEADER, Long.toString(Math.max(1, seconds))));
+    }
+
+    public static class Config {
+        private int replenishRate = 10;
+        private int burstCapacity = 20;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
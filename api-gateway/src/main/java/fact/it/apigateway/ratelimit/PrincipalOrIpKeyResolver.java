@@ -0,0 +1,31 @@
+package fact.it.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+// Rate limit key: the JWT subject for authenticated requests, the client IP otherwise
+// (anonymous GET /motorbikes/** reads).
+@Component
+public class PrincipalOrIpKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .map(name -> "user:" + name)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + remoteIp(exchange)));
+    }
+
+    private static String remoteIp(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() == null ? address.getHostString() : address.getAddress().getHostAddress();
+    }
+}
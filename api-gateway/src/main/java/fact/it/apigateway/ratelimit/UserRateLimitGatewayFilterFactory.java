@@ -0,0 +1,30 @@
+package fact.it.apigateway.ratelimit;
+
+import fact.it.apigateway.filter.ResponseCacheGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+
+// RequestRateLimiter with the in-memory limiter and the user-or-IP key, ordered ahead of the
+// route's ResponseCache and Coalesce filters. Route filters are otherwise ordered by position,
+// after those two, so cache hits and coalesced followers were never counted against the limit.
+//   filters:
+//     - name: UserRateLimit
+//       args:
+//         in-memory-rate-limiter.replenishRate: 20
+//         in-memory-rate-limiter.burstCapacity: 40
+@Component
+public class UserRateLimitGatewayFilterFactory extends RequestRateLimiterGatewayFilterFactory {
+
+    public static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER - 1;
+
+    public UserRateLimitGatewayFilterFactory(InMemoryRateLimiter rateLimiter, PrincipalOrIpKeyResolver keyResolver) {
+        super(rateLimiter, keyResolver);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(super.apply(config), ORDER);
+    }
+}
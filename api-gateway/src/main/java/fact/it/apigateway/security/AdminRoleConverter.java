@@ -0,0 +1,42 @@
+package fact.it.apigateway.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Google tokens carry no roles, so the gateway grants ROLE_ADMIN itself to tokens whose verified
+// email is listed in gateway.admin.emails. Scope authorities are kept as usual.
+public class AdminRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    public static final String ADMIN = "ADMIN";
+
+    private final JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+    private final Set<String> adminEmails;
+
+    public AdminRoleConverter(List<String> adminEmails) {
+        this.adminEmails = adminEmails.stream()
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = new ArrayList<>(scopes.convert(jwt));
+        String email = jwt.getClaimAsString("email");
+        if (email != null && Boolean.TRUE.equals(jwt.getClaimAsBoolean("email_verified"))
+                && adminEmails.contains(email.toLowerCase(Locale.ROOT))) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + ADMIN));
+        }
+        return authorities;
+    }
+}
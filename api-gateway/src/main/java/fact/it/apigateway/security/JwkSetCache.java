@@ -0,0 +1,140 @@
+package fact.it.apigateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Holds the signing keys used to verify JWTs, loaded either from the JWK set endpoint or from a
+// local JWK set file. Remote keys are refreshed in the background, and a failed refresh keeps the
+// last good key set, so a slow or unreachable endpoint never blocks request verification.
+// An unknown "kid" triggers an early refresh, at most once per minRefreshInterval. Until a key
+// set has been loaded, requests wait for a load instead of being verified against no keys;
+// concurrent callers share one in-flight request to the endpoint.
+public class JwkSetCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JwkSetCache.class);
+
+    private final AtomicReference<JWKSet> keys = new AtomicReference<>(new JWKSet());
+    private final AtomicLong lastRefreshNanos = new AtomicLong(Long.MIN_VALUE / 2);
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private final String jwkSetUri;
+    private final Resource jwkSetFile;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final WebClient webClient;
+    private Disposable scheduledRefresh;
+
+    public JwkSetCache(String jwkSetUri, String jwkSetFile, Duration refreshInterval,
+                       Duration minRefreshInterval, WebClient.Builder webClientBuilder) {
+        this.jwkSetUri = jwkSetUri;
+        this.jwkSetFile = jwkSetFile == null || jwkSetFile.isBlank()
+                ? null : new DefaultResourceLoader().getResource(jwkSetFile);
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (jwkSetFile != null) {
+            // Local keys don't change at runtime; load them once, up front
+            keys.set(loadFile());
+            return;
+        }
+        scheduledRefresh = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.dispose();
+        }
+    }
+
+    public Flux<JWK> keysFor(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        JWKSet current = keys.get();
+        List<JWK> matches = selector.select(current);
+        if (!matches.isEmpty() || jwkSetFile != null) {
+            return Flux.fromIterable(matches);
+        }
+        // Nothing loaded yet (first refresh still running, or it failed): load now, unthrottled
+        Mono<JWKSet> reload = current.isEmpty() ? refresh() : refreshIfDue();
+        return reload.flatMapIterable(selector::select);
+    }
+
+    public JWKSet current() {
+        return keys.get();
+    }
+
+    private Mono<JWKSet> refreshIfDue() {
+        long now = System.nanoTime();
+        long last = lastRefreshNanos.get();
+        if (now - last < minRefreshInterval.toNanos() || !lastRefreshNanos.compareAndSet(last, now)) {
+            return Mono.just(keys.get());
+        }
+        return refresh();
+    }
+
+    Mono<JWKSet> refresh() {
+        Mono<JWKSet> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+        Mono<JWKSet> load = fetch().doFinally(signal -> inFlight.set(null)).cache();
+        return inFlight.compareAndSet(null, load) ? load : refresh();
+    }
+
+    private Mono<JWKSet> fetch() {
+        lastRefreshNanos.set(System.nanoTime());
+        return webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::parse)
+                .doOnNext(keys::set)
+                .onErrorResume(e -> {
+                    log.warn("Could not refresh JWK set from {}, keeping {} cached keys: {}",
+                            jwkSetUri, keys.get().size(), e.getMessage());
+                    return Mono.just(keys.get());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private JWKSet parse(String json) {
+        try {
+            return JWKSet.parse(json);
+        } catch (java.text.ParseException e) {
+            throw new IllegalStateException("Invalid JWK set", e);
+        }
+    }
+
+    private JWKSet loadFile() {
+        try (InputStream in = jwkSetFile.getInputStream()) {
+            return JWKSet.load(in);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not load JWK set from " + jwkSetFile, e);
+        }
+    }
+}
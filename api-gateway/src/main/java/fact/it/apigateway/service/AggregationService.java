@@ -0,0 +1,178 @@
+package fact.it.apigateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Backend-for-frontend views: fetches everything a page needs from the services, issuing
+// independent calls in parallel, and merges it into one response. A failing downstream call
+// leaves its part null and is listed under "errors" instead of failing the whole view.
+@Service
+public class AggregationService {
+
+    public static final String ERRORS = "errors";
+
+    private final WebClient webClient;
+    private final String clientServiceUrl;
+    private final String motorbikeServiceUrl;
+    private final String reservationServiceUrl;
+    private final String paymentServiceUrl;
+    private final Duration timeout;
+
+    // Service URLs use service ids, resolved by the load balancer when one is available
+    public AggregationService(WebClient.Builder webClientBuilder,
+                              @Nullable ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                              @Value("${gateway.bff.client-service-url:http://client-service}") String clientServiceUrl,
+                              @Value("${gateway.bff.motorbike-service-url:http://motorbike-service}") String motorbikeServiceUrl,
+                              @Value("${gateway.bff.reservation-service-url:http://reservation-service}") String reservationServiceUrl,
+                              @Value("${gateway.bff.payment-service-url:http://payment-service}") String paymentServiceUrl,
+                              @Value("${gateway.bff.timeout:2s}") Duration timeout) {
+        if (loadBalancer != null) {
+            webClientBuilder = webClientBuilder.filter(loadBalancer);
+        }
+        this.webClient = webClientBuilder.build();
+        this.clientServiceUrl = clientServiceUrl;
+        this.motorbikeServiceUrl = motorbikeServiceUrl;
+        this.reservationServiceUrl = reservationServiceUrl;
+        this.paymentServiceUrl = paymentServiceUrl;
+        this.timeout = timeout;
+    }
+
+    // Everything the reservations page loads on mount
+    public Mono<Map<String, Object>> reservationsPage(String authorization) {
+        List<Map<String, String>> errors = Collections.synchronizedList(new ArrayList<>());
+        return Mono.zip(
+                part("reservation-service", reservationServiceUrl + "/reservations", authorization, errors),
+                part("client-service", clientServiceUrl + "/clients", authorization, errors),
+                part("motorbike-service", motorbikeServiceUrl + "/motorbikes", authorization, errors)
+        ).map(parts -> view(errors,
+                "reservations", parts.getT1(),
+                "clients", parts.getT2(),
+                "motorbikes", parts.getT3()));
+    }
+
+    // A reservation with its client and motorbike; empty if the reservation itself can't be found
+    public Mono<Map<String, Object>> reservationView(String id, String authorization) {
+        List<Map<String, String>> errors = Collections.synchronizedList(new ArrayList<>());
+        return part("reservation-service", reservationServiceUrl + "/reservations/" + id, authorization, errors)
+                .flatMap(reservation -> reservation.isEmpty()
+                        ? errorsOnly(errors)
+                        : withClientAndMotorbike(reservation, authorization, errors)
+                                .map(parts -> view(errors,
+                                        "reservation", parts.getT1(),
+                                        "client", parts.getT2(),
+                                        "motorbike", parts.getT3())));
+    }
+
+    // A payment with its reservation, client and motorbike, in one call: /payments/{id}/details
+    // embeds the reservation details, which embed the client and motorbike. The hops behind it
+    // (payment-service -> reservation-service -> client-service and motorbike-service) stay inside
+    // the cluster. payment-service turns a failed reservation lookup into a null, so that is
+    // reported here; reservation-service does the same for the client and motorbike, which then
+    // come back null without an error.
+    public Mono<Map<String, Object>> paymentView(String id, String authorization) {
+        List<Map<String, String>> errors = Collections.synchronizedList(new ArrayList<>());
+        return part("payment-service", paymentServiceUrl + "/payments/" + id + "/details", authorization, errors)
+                .flatMap(details -> details.isEmpty()
+                        ? errorsOnly(errors)
+                        : Mono.just(paymentParts(details.get(), errors)));
+    }
+
+    // Splits the nested details into the parts of the view, shaped like the single-resource reads
+    private static Map<String, Object> paymentParts(JsonNode details, List<Map<String, String>> errors) {
+        ObjectNode payment = ((ObjectNode) details).deepCopy();
+        JsonNode reservationDetails = payment.remove("reservationDetails");
+        if (reservationDetails == null || !reservationDetails.isObject()) {
+            errors.add(Map.of("service", "reservation-service", "message", "Reservation details unavailable"));
+            return view(errors, "payment", Optional.of(payment), "reservation", Optional.empty(),
+                    "client", Optional.empty(), "motorbike", Optional.empty());
+        }
+        ObjectNode reservation = ((ObjectNode) reservationDetails).deepCopy();
+        JsonNode client = reservation.remove("client");
+        JsonNode motorbike = reservation.remove("motorbike");
+        if (present(client) && client.has("id")) {
+            reservation.set("clientId", client.get("id"));
+        }
+        if (present(motorbike) && motorbike.has("id")) {
+            reservation.set("motorbikeId", motorbike.get("id"));
+        }
+        return view(errors, "payment", Optional.of(payment), "reservation", Optional.of(reservation),
+                "client", Optional.ofNullable(present(client) ? client : null),
+                "motorbike", Optional.ofNullable(present(motorbike) ? motorbike : null));
+    }
+
+    // Fetches the client and motorbike of a reservation in parallel
+    private Mono<Tuple3<Optional<JsonNode>, Optional<JsonNode>, Optional<JsonNode>>> withClientAndMotorbike(
+            Optional<JsonNode> reservation, String authorization, List<Map<String, String>> errors) {
+        if (reservation.isEmpty()) {
+            return Mono.just(Tuples.of(reservation, Optional.empty(), Optional.empty()));
+        }
+        return Mono.zip(
+                Mono.just(reservation),
+                part("client-service", clientServiceUrl + "/clients/"
+                        + text(reservation.get(), "clientId"), authorization, errors),
+                part("motorbike-service", motorbikeServiceUrl + "/motorbikes/"
+                        + text(reservation.get(), "motorbikeId"), authorization, errors));
+    }
+
+    private Mono<Optional<JsonNode>> part(String service, String uri, String authorization, List<Map<String, String>> errors) {
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    if (!(e instanceof WebClientResponseException.NotFound)) {
+                        errors.add(Map.of("service", service, "message", String.valueOf(e.getMessage())));
+                    }
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    // Downstream services answer "not found" with an empty 200, or a 404/500 depending on the service
+    private static Mono<Map<String, Object>> errorsOnly(List<Map<String, String>> errors) {
+        return errors.isEmpty() ? Mono.empty() : Mono.just(view(errors));
+    }
+
+    private static Map<String, Object> view(List<Map<String, String>> errors, Object... keysAndParts) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndParts.length; i += 2) {
+            view.put((String) keysAndParts[i], ((Optional<?>) keysAndParts[i + 1]).orElse(null));
+        }
+        view.put(ERRORS, List.copyOf(errors));
+        return view;
+    }
+
+    private static boolean present(JsonNode node) {
+        return node != null && !node.isNull();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null ? "" : value.asText();
+    }
+}
@@ -0,0 +1,107 @@
+package fact.it.apigateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import fact.it.apigateway.service.AggregationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregationServiceTest {
+
+    private static final Map<String, String> BODIES = Map.of(
+            "/reservations/r1", "{\"id\":\"r1\",\"clientId\":\"c1\",\"motorbikeId\":1}",
+            "/reservations/r2", "{\"id\":\"r2\",\"clientId\":\"c1\",\"motorbikeId\":2}",
+            "/clients/c1", "{\"id\":\"c1\",\"name\":\"John Doe\"}",
+            "/motorbikes/1", "{\"id\":1,\"make\":\"Yamaha\"}",
+            "/payments/p1/details", "{\"id\":\"p1\",\"reservationId\":\"r1\",\"amount\":100.0,"
+                    + "\"reservationDetails\":{\"id\":\"r1\",\"startDate\":\"2025-06-01\","
+                    + "\"client\":{\"id\":\"c1\",\"name\":\"John Doe\"},\"motorbike\":{\"id\":1,\"make\":\"Yamaha\"}}}",
+            "/payments/p2/details", "{\"id\":\"p2\",\"reservationId\":\"r9\",\"amount\":50.0,\"reservationDetails\":null}");
+
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+
+    private final AggregationService aggregationService = new AggregationService(
+            WebClient.builder().exchangeFunction(request -> {
+                String path = request.url().getPath();
+                requested.add(path);
+                String body = BODIES.get(path);
+                ClientResponse response = body == null
+                        ? ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()
+                        : ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(body).build();
+                // Leaf lookups are slow, so a sequential implementation would take twice as long
+                Duration delay = path.startsWith("/clients") || path.startsWith("/motorbikes")
+                        ? Duration.ofMillis(300) : Duration.ZERO;
+                return Mono.just(response).delayElement(delay);
+            }),
+            null,
+            "http://client-service", "http://motorbike-service", "http://reservation-service",
+            "http://payment-service", Duration.ofSeconds(2));
+
+    @Test
+    void testReservationViewFetchesClientAndMotorbikeInParallel() {
+        long start = System.nanoTime();
+        Map<String, Object> view = aggregationService.reservationView("r1", "Bearer token").block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals("John Doe", ((JsonNode) view.get("client")).get("name").asText());
+        assertEquals("Yamaha", ((JsonNode) view.get("motorbike")).get("make").asText());
+        assertEquals(List.of(), view.get(AggregationService.ERRORS));
+        assertTrue(elapsedMillis < 550, "took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void testFailedDownstreamGivesPartialResult() {
+        Map<String, Object> view = aggregationService.reservationView("r2", null).block();
+        assertNotNull(view.get("reservation"));
+        assertNotNull(view.get("client"));
+        assertNull(view.get("motorbike"));
+        List<?> errors = (List<?>) view.get(AggregationService.ERRORS);
+        assertEquals(1, errors.size());
+        assertEquals("motorbike-service", ((Map<?, ?>) errors.get(0)).get("service"));
+    }
+
+    @Test
+    void testPaymentViewIsOneCallToThePaymentDetails() {
+        Map<String, Object> view = aggregationService.paymentView("p1", null).block();
+        assertEquals(List.of("/payments/p1/details"), requested);
+        assertEquals(100.0, ((JsonNode) view.get("payment")).get("amount").asDouble());
+        assertFalse(((JsonNode) view.get("payment")).has("reservationDetails"));
+        JsonNode reservation = (JsonNode) view.get("reservation");
+        assertEquals("r1", reservation.get("id").asText());
+        assertEquals("c1", reservation.get("clientId").asText());
+        assertFalse(reservation.has("client"));
+        assertEquals("John Doe", ((JsonNode) view.get("client")).get("name").asText());
+        assertEquals("Yamaha", ((JsonNode) view.get("motorbike")).get("make").asText());
+        assertEquals(List.of(), view.get(AggregationService.ERRORS));
+    }
+
+    @Test
+    void testPaymentWithoutReservationDetailsReportsTheReservation() {
+        Map<String, Object> view = aggregationService.paymentView("p2", null).block();
+        assertNotNull(view.get("payment"));
+        assertNull(view.get("reservation"));
+        List<?> errors = (List<?>) view.get(AggregationService.ERRORS);
+        assertEquals("reservation-service", ((Map<?, ?>) errors.get(0)).get("service"));
+    }
+
+    @Test
+    void testUnavailableMainResourceReportsOnlyErrors() {
+        Map<String, Object> view = aggregationService.paymentView("missing", null).block();
+        assertFalse(view.containsKey("payment"));
+        assertEquals(1, ((List<?>) view.get(AggregationService.ERRORS)).size());
+    }
+}
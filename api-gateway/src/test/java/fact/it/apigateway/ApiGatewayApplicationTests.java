@@ -1,13 +1,73 @@
 package fact.it.apigateway;
 
+import fact.it.apigateway.ratelimit.InMemoryRateLimiter;
+import fact.it.apigateway.security.AdminRoleConverter;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.test.web.reactive.server.WebTestClient;
 
-@SpringBootTest
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+
+@SpringBootTest(properties = {
+        "gateway.jwt.jwk-set-file=classpath:test-jwks.json",
+        "spring.security.oauth2.resourceserver.jwt.audiences=test-client-id"
+})
+@AutoConfigureWebTestClient
+@AutoConfigureObservability(tracing = false)
 class ApiGatewayApplicationTests {
 
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RouteLocator routeLocator;
+
+    @Autowired
+    private InMemoryRateLimiter rateLimiter;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void routeRateLimitsAreBound() {
+        assertEquals(4, routeLocator.getRoutes().collectList().block().size());
+        assertEquals(20, rateLimiter.getConfig().get("payment-service").getReplenishRate());
+        assertEquals(100, rateLimiter.getConfig().get("motorbike-service").getBurstCapacity());
+    }
+
+    @Test
+    void adminEndpointsNeedTheAdminRole() {
+        webTestClient.get().uri("/admin/cache").exchange().expectStatus().isUnauthorized();
+        webTestClient.mutateWith(mockJwt()).get().uri("/admin/cache").exchange().expectStatus().isForbidden();
+        webTestClient.mutateWith(mockJwt()
+                        .jwt(jwt -> jwt.claim("email", "Admin@Example.com").claim("email_verified", true))
+                        .authorities(new AdminRoleConverter(List.of("admin@example.com"))))
+                .get().uri("/admin/cache").exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void internalBulkChecksAreNotExposed() {
+        for (String path : List.of("/clients/existing", "/motorbikes/existing", "/reservations/existing",
+                "/reservations/archived")) {
+            webTestClient.mutateWith(mockJwt()).post().uri(path).bodyValue(List.of("id"))
+                    .exchange().expectStatus().isForbidden();
+        }
+    }
+
+    @Test
+    void healthAndPrometheusAreOpenButOtherActuatorEndpointsAreNot() {
+        webTestClient.get().uri("/actuator/health").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/actuator/prometheus").exchange().expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertTrue(body.contains("application=\"api-gateway\"")));
+        webTestClient.get().uri("/actuator/metrics").exchange().expectStatus().isUnauthorized();
+    }
+
 }
@@ -0,0 +1,63 @@
+package fact.it.apigateway;
+
+import fact.it.apigateway.ratelimit.BffRateLimitFilter;
+import fact.it.apigateway.ratelimit.InMemoryRateLimiter;
+import fact.it.apigateway.ratelimit.PrincipalOrIpKeyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BffRateLimitFilterTest {
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> {
+        passed.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private BffRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new BffRateLimitFilter(new InMemoryRateLimiter(1, 1), new PrincipalOrIpKeyResolver(), 1, 2);
+    }
+
+    private MockServerWebExchange request(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000)));
+    }
+
+    @Test
+    void testBffRequestsOverTheLimitAreRejected() {
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = request("/bff/reservations");
+            filter.filter(exchange, chain).block();
+            assertNull(exchange.getResponse().getStatusCode());
+            assertNotNull(exchange.getResponse().getHeaders().getFirst(InMemoryRateLimiter.REMAINING_HEADER));
+        }
+        MockServerWebExchange denied = request("/bff/payments/1");
+        filter.filter(denied, chain).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, denied.getResponse().getStatusCode());
+        assertEquals("1", denied.getResponse().getHeaders().getFirst(InMemoryRateLimiter.RETRY_AFTER_HEADER));
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    void testOtherPathsAreLeftToTheRouteFilters() {
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = request("/reservations");
+            filter.filter(exchange, chain).block();
+            assertNull(exchange.getResponse().getHeaders().getFirst(InMemoryRateLimiter.REMAINING_HEADER));
+        }
+        assertEquals(5, passed.get());
+    }
+}
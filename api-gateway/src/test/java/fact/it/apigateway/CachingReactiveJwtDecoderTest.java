@@ -0,0 +1,160 @@
+package fact.it.apigateway;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import fact.it.apigateway.config.SecurityConfig;
+import fact.it.apigateway.security.CachingReactiveJwtDecoder;
+import fact.it.apigateway.security.JwkSetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingReactiveJwtDecoderTest {
+
+    private static final String ISSUER = "https://accounts.google.com";
+    private static final String AUDIENCE = "gateway-client-id";
+
+    @TempDir
+    Path tempDir;
+
+    private RSAKey signingKey;
+    private ReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("local").generate();
+        Path jwks = tempDir.resolve("jwks.json");
+        Files.writeString(jwks, new JWKSet(signingKey.toPublicJWK()).toString());
+        JwkSetCache jwkSetCache = new JwkSetCache("http://unreachable.invalid/certs", jwks.toUri().toString(),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), WebClient.builder());
+        jwkSetCache.start();
+        decoder = new SecurityConfig().jwtDecoder(jwkSetCache, ISSUER, List.of(AUDIENCE), 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void testTokenSignedWithLocalKeyIsVerifiedOffline() throws Exception {
+        Jwt jwt = decoder.decode(token("alice", Instant.now().plusSeconds(300))).block();
+        assertEquals("alice", jwt.getSubject());
+    }
+
+    @Test
+    void testTamperedAndExpiredTokensAreRejected() throws Exception {
+        String token = token("alice", Instant.now().plusSeconds(300));
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+        assertThrows(JwtException.class, () -> decoder.decode(tampered).block());
+        assertThrows(JwtException.class, () -> decoder.decode(token("bob", Instant.now().minusSeconds(300))).block());
+    }
+
+    @Test
+    void testTokenForAnotherAudienceIsRejected() throws Exception {
+        assertThrows(JwtException.class, () -> decoder.decode(
+                token("alice", Instant.now().plusSeconds(300), "some-other-client")).block());
+        assertThrows(JwtException.class, () -> decoder.decode(
+                token("alice", Instant.now().plusSeconds(300), null)).block());
+    }
+
+    @Test
+    void testNoConfiguredAudienceFailsAtStartup() {
+        JwkSetCache jwkSetCache = new JwkSetCache("http://unreachable.invalid/certs", "",
+                Duration.ofMinutes(5), Duration.ofSeconds(30), WebClient.builder());
+        assertThrows(IllegalStateException.class,
+                () -> new SecurityConfig().jwtDecoder(jwkSetCache, ISSUER, List.of(), 100, Duration.ofHours(1)));
+    }
+
+    @Test
+    void testVerifiedTokenIsServedFromCache() throws Exception {
+        AtomicInteger verifications = new AtomicInteger();
+        CachingReactiveJwtDecoder caching = new CachingReactiveJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return decoder.decode(token);
+        }, 100, Duration.ofHours(1));
+        String token = token("alice", Instant.now().plusSeconds(300));
+        caching.decode(token).block();
+        caching.decode(token).block();
+        assertEquals(1, verifications.get());
+        assertEquals(1, caching.size());
+    }
+
+    @Test
+    void testCachedTokenExpiresWithToken() throws Exception {
+        AtomicInteger verifications = new AtomicInteger();
+        Jwt shortLived = Jwt.withTokenValue("t").header("alg", "RS256").subject("alice")
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusMillis(100)).build();
+        CachingReactiveJwtDecoder caching = new CachingReactiveJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return Mono.just(shortLived);
+        }, 100, Duration.ofHours(1));
+        caching.decode("t").block();
+        Thread.sleep(150);
+        caching.decode("t").block();
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testTokenIsVerifiedWhileTheFirstKeyLoadHasFailed() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        WebClient.Builder endpoint = WebClient.builder().exchangeFunction(request -> fetches.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("connection refused"))
+                : Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(new JWKSet(signingKey.toPublicJWK()).toString()).build()));
+        JwkSetCache remote = new JwkSetCache("http://jwks.test/certs", null,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), endpoint);
+        remote.start();
+        try {
+            while (fetches.get() == 0) {
+                Thread.sleep(10);
+            }
+            // let the failed load finish, so the request below doesn't join it
+            Thread.sleep(200);
+            ReactiveJwtDecoder remoteDecoder = new SecurityConfig().jwtDecoder(remote, ISSUER, List.of(AUDIENCE), 100, Duration.ofHours(1));
+            Jwt jwt = remoteDecoder.decode(token("alice", Instant.now().plusSeconds(300))).block();
+            assertEquals("alice", jwt.getSubject());
+            assertEquals(2, fetches.get());
+        } finally {
+            remote.stop();
+        }
+    }
+
+    private String token(String subject, Instant expiresAt) throws Exception {
+        return token(subject, expiresAt, AUDIENCE);
+    }
+
+    private String token(String subject, Instant expiresAt, String audience) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issuer(ISSUER)
+                .audience(audience)
+                .issueTime(Date.from(expiresAt.minusSeconds(600)))
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+}
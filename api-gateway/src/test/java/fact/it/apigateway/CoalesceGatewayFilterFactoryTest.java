@@ -0,0 +1,118 @@
+package fact.it.apigateway;
+
+import fact.it.apigateway.filter.CoalesceGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalesceGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setRouteId("reservation-service");
+        filter = new CoalesceGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    @Test
+    void testConcurrentIdenticalGetsShareOneUpstreamCall() {
+        MockServerWebExchange leader = get("/reservations/1/details", "Bearer a");
+        MockServerWebExchange follower = get("/reservations/1/details", "Bearer a");
+        Mono<Void> first = filter.filter(leader, slowUpstream("{\"id\":\"1\"}"));
+        Mono<Void> second = filter.filter(follower, slowUpstream("other"));
+
+        runConcurrently(first, second);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("{\"id\":\"1\"}", follower.getResponse().getBodyAsString().block());
+        assertEquals("true", follower.getResponse().getHeaders().getFirst(CoalesceGatewayFilterFactory.COALESCED_HEADER));
+        assertEquals(0.5, meterRegistry.get("gateway.coalescing.ratio").tag("route", "reservation-service").gauge().value());
+    }
+
+    @Test
+    void testFollowerGetsNoneOfTheLeadersPerRequestHeaders() {
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setRouteId("motorbike-service");
+        config.setIncludeAuthorization(false);
+        GatewayFilter shared = new CoalesceGatewayFilterFactory(meterRegistry).apply(config);
+        MockServerWebExchange leader = get("/motorbikes/1", "Bearer a");
+        MockServerWebExchange follower = get("/motorbikes/1", "Bearer b");
+        follower.getResponse().getHeaders().set("X-RateLimit-Remaining", "39");
+        GatewayFilterChain leaderUpstream = exchange -> {
+            exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "2");
+            exchange.getResponse().getHeaders().add(HttpHeaders.SET_COOKIE, "session=a");
+            exchange.getResponse().getHeaders().set(HttpHeaders.ETAG, "\"v1\"");
+            return slowUpstream("{}").filter(exchange);
+        };
+
+        runConcurrently(shared.filter(leader, leaderUpstream), shared.filter(follower, slowUpstream("other")));
+
+        HttpHeaders headers = follower.getResponse().getHeaders();
+        assertEquals("true", headers.getFirst(CoalesceGatewayFilterFactory.COALESCED_HEADER));
+        assertEquals("39", headers.getFirst("X-RateLimit-Remaining"));
+        assertNull(headers.getFirst(HttpHeaders.SET_COOKIE));
+        assertEquals("\"v1\"", headers.getETag());
+    }
+
+    @Test
+    void testDifferentUsersAreNotCoalesced() {
+        Mono<Void> first = filter.filter(get("/reservations/1/details", "Bearer a"), slowUpstream("a"));
+        Mono<Void> second = filter.filter(get("/reservations/1/details", "Bearer b"), slowUpstream("b"));
+        runConcurrently(first, second);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testSequentialRequestsAreNotCoalesced() {
+        release.tryEmitEmpty();
+        filter.filter(get("/reservations/1", null), slowUpstream("a")).block();
+        filter.filter(get("/reservations/1", null), slowUpstream("a")).block();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private void runConcurrently(Mono<Void> first, Mono<Void> second) {
+        CompletableFuture<Void> both = Mono.when(first, second).toFuture();
+        release.tryEmitEmpty();
+        both.join();
+    }
+
+    // Holds the upstream response until the test releases it, so requests overlap
+    private GatewayFilterChain slowUpstream(String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                        .wrap(body.getBytes(StandardCharsets.UTF_8))));
+            }));
+        };
+    }
+
+    private static MockServerWebExchange get(String uri, String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(uri);
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return MockServerWebExchange.from(request.build());
+    }
+}
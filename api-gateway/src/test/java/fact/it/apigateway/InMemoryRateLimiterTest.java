@@ -0,0 +1,40 @@
+package fact.it.apigateway;
+
+import fact.it.apigateway.ratelimit.InMemoryRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimiterTest {
+
+    @Test
+    void testBurstIsAllowedThenDeniedWithRetryAfter() {
+        InMemoryRateLimiter rateLimiter = new InMemoryRateLimiter(1, 3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.isAllowed("payment-service", "user:alice").block().isAllowed());
+        }
+        RateLimiter.Response denied = rateLimiter.isAllowed("payment-service", "user:alice").block();
+        assertFalse(denied.isAllowed());
+        assertEquals("1", denied.getHeaders().get(InMemoryRateLimiter.RETRY_AFTER_HEADER));
+        assertEquals("0", denied.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+    }
+
+    @Test
+    void testKeysAndRoutesHaveSeparateBuckets() {
+        InMemoryRateLimiter rateLimiter = new InMemoryRateLimiter(1, 1);
+        assertTrue(rateLimiter.isAllowed("payment-service", "user:alice").block().isAllowed());
+        assertFalse(rateLimiter.isAllowed("payment-service", "user:alice").block().isAllowed());
+        assertTrue(rateLimiter.isAllowed("payment-service", "user:bob").block().isAllowed());
+        assertTrue(rateLimiter.isAllowed("reservation-service", "user:alice").block().isAllowed());
+    }
+
+    @Test
+    void testTokensAreReplenished() throws InterruptedException {
+        InMemoryRateLimiter rateLimiter = new InMemoryRateLimiter(20, 1);
+        assertTrue(rateLimiter.isAllowed("motorbike-service", "ip:127.0.0.1").block().isAllowed());
+        assertFalse(rateLimiter.isAllowed("motorbike-service", "ip:127.0.0.1").block().isAllowed());
+        Thread.sleep(60);
+        assertTrue(rateLimiter.isAllowed("motorbike-service", "ip:127.0.0.1").block().isAllowed());
+    }
+}
@@ -0,0 +1,212 @@
+package fact.it.apigateway;
+
+import fact.it.apigateway.filter.ResponseCacheGatewayFilterFactory;
+import fact.it.apigateway.filter.ResponseCacheStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("motorbike-service")
+            .uri("http://motorbike-service:8081")
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheStore store;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new ResponseCacheStore(1024 * 1024, 1024, meterRegistry);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMinutes(1));
+        filter = new ResponseCacheGatewayFilterFactory(store).apply(config);
+    }
+
+    @Test
+    void testSecondGetIsServedFromCache() {
+        MockServerWebExchange first = get("/motorbikes?make=Yamaha");
+        filter.filter(first, upstream("[{\"id\":1}]", null, null)).block();
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+
+        MockServerWebExchange second = get("/motorbikes?make=Yamaha");
+        filter.filter(second, upstream("other", null, null)).block();
+        assertEquals("[{\"id\":1}]", second.getResponse().getBodyAsString().block());
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0.5, meterRegistry.get("gateway.response.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testDifferentQueryIsADifferentEntry() {
+        filter.filter(get("/motorbikes?make=Yamaha"), upstream("a", null, null)).block();
+        filter.filter(get("/motorbikes?make=Honda"), upstream("b", null, null)).block();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testNoStoreResponseIsNotCached() {
+        filter.filter(get("/motorbikes/1"), upstream("a", "no-store", null)).block();
+        filter.filter(get("/motorbikes/1"), upstream("a", "no-store", null)).block();
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testWriteThroughRouteInvalidatesEntries() {
+        filter.filter(get("/motorbikes/1"), upstream("a", null, null)).block();
+        MockServerWebExchange delete = exchange(MockServerHttpRequest.delete("/motorbikes/1").build());
+        filter.filter(delete, upstream("", null, null)).block();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testMatchingIfNoneMatchGetsNotModifiedFromCache() {
+        filter.filter(get("/motorbikes/1"), upstream("a", null, "\"v1\"")).block();
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get("/motorbikes/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"").build());
+        filter.filter(conditional, upstream("a", null, "\"v1\"")).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void testStaleEntryWithEtagIsRevalidated() throws InterruptedException {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMillis(200));
+        GatewayFilter shortLived = new ResponseCacheGatewayFilterFactory(store).apply(config);
+        shortLived.filter(get("/motorbikes/1"), upstream("a", null, "\"v1\"")).block();
+        Thread.sleep(250);
+
+        MockServerWebExchange revalidated = get("/motorbikes/1");
+        shortLived.filter(revalidated, (exchange) -> {
+            upstreamCalls.incrementAndGet();
+            assertEquals("\"v1\"", exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+            return exchange.getResponse().writeWith(Mono.empty());
+        }).block();
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals("a", revalidated.getResponse().getBodyAsString().block());
+        assertEquals("REVALIDATED", revalidated.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testCacheHitDoesNotCarryTheFirstCallersRateLimitOrTraceHeaders() {
+        GatewayFilterChain tagged = exchange -> {
+            exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "7");
+            exchange.getResponse().getHeaders().set("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+            return upstream("a", null, null).filter(exchange);
+        };
+        filter.filter(get("/motorbikes/1"), tagged).block();
+
+        MockServerWebExchange hit = get("/motorbikes/1");
+        filter.filter(hit, tagged).block();
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertNull(hit.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        assertNull(hit.getResponse().getHeaders().getFirst("traceparent"));
+    }
+
+    @Test
+    void testVaryingResponseIsOnlyServedToMatchingRequests() {
+        GatewayFilterChain varying = exchange -> {
+            exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+            return upstream("nl", null, null).filter(exchange);
+        };
+        filter.filter(exchange(MockServerHttpRequest.get("/motorbikes/1")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "nl").build()), varying).block();
+
+        MockServerWebExchange same = exchange(MockServerHttpRequest.get("/motorbikes/1")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "nl").build());
+        filter.filter(same, varying).block();
+        assertEquals("HIT", same.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+
+        MockServerWebExchange other = exchange(MockServerHttpRequest.get("/motorbikes/1")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "fr").build());
+        filter.filter(other, varying).block();
+        assertEquals("MISS", other.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testVaryStarIsNotCached() {
+        GatewayFilterChain varying = exchange -> {
+            exchange.getResponse().getHeaders().setVary(List.of("*"));
+            return upstream("a", null, null).filter(exchange);
+        };
+        filter.filter(get("/motorbikes/1"), varying).block();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testNoCacheResponseIsRevalidatedOnEveryUse() {
+        filter.filter(get("/motorbikes/1"), upstream("a", "no-cache", "\"v1\"")).block();
+        assertEquals(1, store.size());
+
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange revalidated = get("/motorbikes/1");
+            filter.filter(revalidated, (exchange) -> {
+                upstreamCalls.incrementAndGet();
+                assertEquals("\"v1\"", exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+                exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+                return exchange.getResponse().writeWith(Mono.empty());
+            }).block();
+            assertEquals("a", revalidated.getResponse().getBodyAsString().block());
+            assertEquals("REVALIDATED", revalidated.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+        }
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void testNoCacheResponseWithoutEtagIsNotCached() {
+        filter.filter(get("/motorbikes/1"), upstream("a", "no-cache", null)).block();
+        assertEquals(0, store.size());
+    }
+
+    private GatewayFilterChain upstream(String body, String cacheControl, String etag) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            if (cacheControl != null) {
+                headers.setCacheControl(cacheControl);
+            }
+            if (etag != null) {
+                headers.setETag(etag);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return exchange(MockServerHttpRequest.get(uri).build());
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+}
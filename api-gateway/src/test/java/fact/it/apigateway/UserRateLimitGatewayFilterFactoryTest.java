@@ -0,0 +1,84 @@
+package fact.it.apigateway;
+
+import fact.it.apigateway.filter.CoalesceGatewayFilterFactory;
+import fact.it.apigateway.filter.ResponseCacheGatewayFilterFactory;
+import fact.it.apigateway.filter.ResponseCacheStore;
+import fact.it.apigateway.ratelimit.InMemoryRateLimiter;
+import fact.it.apigateway.ratelimit.PrincipalOrIpKeyResolver;
+import fact.it.apigateway.ratelimit.UserRateLimitGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRateLimitGatewayFilterFactoryTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("motorbike-service")
+            .uri("http://motorbike-service:8081")
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void testResponsesServedByTheGatewayCountAgainstTheLimit() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheGatewayFilterFactory.Config cacheConfig = new ResponseCacheGatewayFilterFactory.Config();
+        cacheConfig.setTtl(Duration.ofMinutes(1));
+        CoalesceGatewayFilterFactory.Config coalesceConfig = new CoalesceGatewayFilterFactory.Config();
+        coalesceConfig.setIncludeAuthorization(false);
+        coalesceConfig.setRouteId(ROUTE.getId());
+        // Declared in route order; the gateway sorts them by their order
+        List<GatewayFilter> filters = new ArrayList<>(List.of(
+                new UserRateLimitGatewayFilterFactory(new InMemoryRateLimiter(1, 1), new PrincipalOrIpKeyResolver())
+                        .apply(new UserRateLimitGatewayFilterFactory.Config()),
+                new ResponseCacheGatewayFilterFactory(new ResponseCacheStore(1024 * 1024, 1024, meterRegistry))
+                        .apply(cacheConfig),
+                new CoalesceGatewayFilterFactory(meterRegistry).apply(coalesceConfig)));
+        AnnotationAwareOrderComparator.sort(filters);
+
+        MockServerWebExchange first = get();
+        chain(filters, 0).filter(first).block();
+        assertEquals(HttpStatus.OK, first.getResponse().getStatusCode());
+
+        // Would be a cache hit, but the caller's single token is spent
+        MockServerWebExchange second = get();
+        chain(filters, 0).filter(second).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    private GatewayFilterChain chain(List<GatewayFilter> filters, int index) {
+        if (index == filters.size()) {
+            return exchange -> {
+                upstreamCalls.incrementAndGet();
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                        .wrap("[]".getBytes(StandardCharsets.UTF_8))));
+            };
+        }
+        return exchange -> filters.get(index).filter(exchange, chain(filters, index + 1));
+    }
+
+    private static MockServerWebExchange get() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/motorbikes").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+}
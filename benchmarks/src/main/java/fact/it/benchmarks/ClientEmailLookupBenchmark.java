@@ -0,0 +1,103 @@
+package fact.it.benchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import fact.it.clientservice.config.ClientEmailIndexMigration;
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.repository.ClientRepository;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientPrefixIndex;
+import fact.it.clientservice.service.ClientService;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GET /clients?email= against a million stored clients: ClientService over the real Spring Data
+// repository and MongoDB driver, talking to an in-memory MongoDB server (mongo-java-server) with
+// the unique email index. lookupUncached asks for a different client every time, so it misses the
+// email cache and measures the indexed query; lookupCached repeats one email. Numbers are for the
+// wire protocol and index path, not a production mongod.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ClientEmailLookupBenchmark {
+
+    private static final int CLIENTS = 1_000_000;
+    private static final int INSERT_BATCH = 10_000;
+
+    private MongoServer server;
+    private MongoClient mongoClient;
+    private ClientService clientService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        mongoClient = MongoClients.create("mongodb://localhost:" + server.bind().getPort());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "benchmark");
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Client.class));
+        List<Document> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < CLIENTS; i++) {
+            batch.add(new Document("_id", "c" + i).append("name", "Client " + i)
+                    .append("email", "client" + i + "@example.com")
+                    .append("phone", "+32 470 " + i).append("address", "Street " + i));
+            if (batch.size() == INSERT_BATCH) {
+                collection.insertMany(batch);
+                batch.clear();
+            }
+        }
+
+        // The index ClientEmailIndexMigration creates; its duplicate scan uses $trim, which
+        // mongo-java-server doesn't implement
+        mongoTemplate.indexOps(Client.class).ensureIndex(new Index().on("email", Sort.Direction.ASC)
+                .unique().named(ClientEmailIndexMigration.EMAIL_INDEX));
+
+        ClientEmailCache emailCache = new ClientEmailCache(10_000);
+        clientService = new ClientService();
+        ReflectionTestUtils.setField(clientService, "clientRepository",
+                new MongoRepositoryFactory(mongoTemplate).getRepository(ClientRepository.class));
+        ReflectionTestUtils.setField(clientService, "emailCache", emailCache);
+        ReflectionTestUtils.setField(clientService, "prefixIndex", new ClientPrefixIndex());
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+        server.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Client> lookupUncached() {
+        next = (next + 7_919) % CLIENTS;
+        return clientService.getClientsByEmail("Client" + next + "@Example.com");
+    }
+
+    @Benchmark
+    public List<Client> lookupCached() {
+        return clientService.getClientsByEmail("client42@example.com");
+    }
+}
@@ -0,0 +1,89 @@
+package fact.it.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import fact.it.clientservice.config.ClientEmailIndexMigration;
+import fact.it.clientservice.dto.ClientImportResultDTO;
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientImportService;
+import fact.it.clientservice.service.ClientPrefixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// POST /clients/import of 10,000 NDJSON rows into an in-memory MongoDB server (mongo-java-server)
+// with the unique email index: parsing, batching and the unordered bulk upserts through the real
+// driver. Every invocation after the first updates the same clients. Records per second is
+// ROWS / score; the server is a stand-in, so this bounds the service side, not a production mongod.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientImportBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private MongoServer server;
+    private MongoClient mongoClient;
+    private ClientImportService importService;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        mongoClient = MongoClients.create("mongodb://localhost:" + server.bind().getPort());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "benchmark");
+        mongoTemplate.indexOps(Client.class).ensureIndex(new Index().on("email", Sort.Direction.ASC)
+                .unique().named(ClientEmailIndexMigration.EMAIL_INDEX));
+
+        importService = new ClientImportService();
+        ReflectionTestUtils.setField(importService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(importService, "emailCache", new ClientEmailCache(10_000));
+        ReflectionTestUtils.setField(importService, "prefixIndex", new ClientPrefixIndex());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ReflectionTestUtils.setField(importService, "objectMapper", objectMapper);
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            ndjson.append("{\"name\":\"Client ").append(i).append("\",\"email\":\"Client").append(i)
+                    .append("@Example.com\",\"phone\":\"+32 470 ").append(i)
+                    .append("\",\"address\":\"Street ").append(i).append("\"}\n");
+        }
+        body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+        server.shutdownNow();
+    }
+
+    @Benchmark
+    public ClientImportResultDTO importNdjson() throws IOException {
+        return importService.importClients(new ByteArrayInputStream(body), ClientImportService.NDJSON);
+    }
+}
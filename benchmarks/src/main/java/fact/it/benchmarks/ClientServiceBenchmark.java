@@ -0,0 +1,70 @@
+package fact.it.benchmarks;
+
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.repository.ClientRepository;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientPrefixIndex;
+import fact.it.clientservice.service.ClientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// ClientService over an in-memory repository holding a few thousand clients, so email lookups
+// and typeahead suggestions see a realistically sized cache and prefix index.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientServiceBenchmark {
+
+    private static final int CLIENTS = 5_000;
+
+    private ClientService clientService;
+    private Client update;
+
+    @Setup
+    public void setUp() {
+        ClientRepository repository = InMemoryRepository.create(ClientRepository.class,
+                Client::getId, Client::setId, () -> UUID.randomUUID().toString());
+        for (int i = 0; i < CLIENTS; i++) {
+            repository.save(new Client("c" + i, "Client " + i, "client" + i + "@example.com",
+                    "+32 470 " + i, "Street " + i));
+        }
+        repository.save(Fixtures.client());
+        clientService = new ClientService();
+        ReflectionTestUtils.setField(clientService, "clientRepository", repository);
+        ReflectionTestUtils.setField(clientService, "emailCache", new ClientEmailCache(10_000));
+        ReflectionTestUtils.setField(clientService, "prefixIndex", new ClientPrefixIndex());
+        clientService.rebuildPrefixIndex();
+        update = Fixtures.client();
+    }
+
+    @Benchmark
+    public Client updateClient() {
+        return clientService.updateClient("c1", update);
+    }
+
+    @Benchmark
+    public List<Client> getClientsByEmail() {
+        return clientService.getClientsByEmail("jan.peeters@example.com");
+    }
+
+    @Benchmark
+    public List<Client> suggestClients() {
+        return clientService.suggestClients("jan", 10);
+    }
+}
@@ -0,0 +1,88 @@
+package fact.it.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fact.it.paymentservice.controller.PaymentController;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.repository.PaymentRepository;
+import fact.it.paymentservice.service.PaymentService;
+import fact.it.reservationservice.controller.ReservationController;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.service.ReservationService;
+import fact.it.reservationservice.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A full details request per service through its controller, from the downstream response bodies
+// to the serialized response: with passthrough the nested bodies are embedded as received
+// (RawJson), without it they are parsed into Maps and written out again. Run with the GC
+// profiler for bytes/op.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetailsPassthroughBenchmark {
+
+    @Param({"true", "false"})
+    public boolean passthrough;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ReservationController reservationController;
+    private PaymentController paymentController;
+
+    @Setup
+    public void setUp() throws Exception {
+        ReservationRepository reservations = InMemoryRepository.create(ReservationRepository.class,
+                Reservation::getId, Reservation::setId, () -> "r1");
+        ReservationService reservationService = new ReservationService();
+        ReflectionTestUtils.setField(reservationService, "reservationRepository", reservations);
+        ReflectionTestUtils.setField(reservationService, "restTemplate", StubHttp.restTemplate(Map.of(
+                "/clients/c1", Fixtures.CLIENT_JSON,
+                "/motorbikes/1", Fixtures.MOTORBIKE_JSON)));
+        ReflectionTestUtils.setField(reservationService, "singleFlight", new SingleFlight(new SimpleMeterRegistry(), true));
+        ReflectionTestUtils.setField(reservationService, "passthrough", passthrough);
+        reservationService.saveReservation(Fixtures.reservation());
+        reservationController = new ReservationController();
+        ReflectionTestUtils.setField(reservationController, "reservationService", reservationService);
+
+        PaymentRepository payments = InMemoryRepository.create(PaymentRepository.class,
+                Payment::getId, Payment::setId, () -> "p1");
+        PaymentService paymentService = new PaymentService();
+        ReflectionTestUtils.setField(paymentService, "paymentRepository", payments);
+        ReflectionTestUtils.setField(paymentService, "restTemplate", StubHttp.restTemplate(Map.of(
+                "/reservations/r1/details", objectMapper.writeValueAsString(Fixtures.reservationDetails()))));
+        ReflectionTestUtils.setField(paymentService, "passthrough", passthrough);
+        paymentService.savePayment(Fixtures.payment());
+        paymentController = new PaymentController();
+        ReflectionTestUtils.setField(paymentController, "paymentService", paymentService);
+    }
+
+    // GET /reservations/{id}/details: two downstream bodies embedded in one response
+    @Benchmark
+    public byte[] reservationDetails() throws Exception {
+        return objectMapper.writeValueAsBytes(reservationController.getReservationDetails("r1").getBody());
+    }
+
+    // GET /payments/{id}/details: one nested reservation details body
+    @Benchmark
+    public byte[] paymentDetails() throws Exception {
+        return objectMapper.writeValueAsBytes(paymentController.getPaymentDetails("p1").getBody());
+    }
+}
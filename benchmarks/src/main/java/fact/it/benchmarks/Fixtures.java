@@ -0,0 +1,91 @@
+package fact.it.benchmarks;
+
+import fact.it.clientservice.model.Client;
+import fact.it.motorbikeservice.model.Motorbike;
+import fact.it.paymentservice.dto.PaymentDetailsDTO;
+import fact.it.paymentservice.model.Payment;
+import fact.it.reservationservice.dto.ReservationDetailsDTO;
+import fact.it.reservationservice.model.Reservation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Representative payloads shared by the benchmarks. Nested details are plain maps, which is
+// what RestTemplate.getForObject(url, Object.class) hands the controllers at runtime.
+final class Fixtures {
+
+    static final String CLIENT_JSON =
+            "{\"id\":\"c1\",\"name\":\"Jan Peeters\",\"email\":\"jan.peeters@example.com\",\"phone\":\"+32 470 12 34 56\",\"address\":\"Kleinhoefstraat 4, 2440 Geel\"}";
+    static final String MOTORBIKE_JSON =
+            "{\"id\":1,\"make\":\"Yamaha\",\"model\":\"MT-07\",\"year\":\"2023\",\"price\":89.5}";
+    static final String RESERVATION_JSON =
+            "{\"id\":\"r1\",\"clientId\":\"c1\",\"motorbikeId\":1,\"reservationDate\":\"2024-06-01\",\"startDate\":\"2024-06-10\",\"endDate\":\"2024-06-15\"}";
+
+    private Fixtures() {
+    }
+
+    static Client client() {
+        return new Client("c1", "Jan Peeters", "jan.peeters@example.com", "+32 470 12 34 56", "Kleinhoefstraat 4, 2440 Geel");
+    }
+
+    static Motorbike motorbike() {
+        return new Motorbike(1L, "Yamaha", "MT-07", "2023", 89.5);
+    }
+
+    static Reservation reservation() {
+        return new Reservation("r1", "c1", 1L, "2024-06-01", "2024-06-10", "2024-06-15");
+    }
+
+    static Payment payment() {
+        return new Payment("p1", "r1", 447.5, "2024-06-02", "Paid");
+    }
+
+    static ReservationDetailsDTO reservationDetails() {
+        ReservationDetailsDTO dto = new ReservationDetailsDTO();
+        dto.setId("r1");
+        dto.setClient(clientMap());
+        dto.setMotorbike(motorbikeMap());
+        dto.setReservationDate("2024-06-01");
+        dto.setStartDate("2024-06-10");
+        dto.setEndDate("2024-06-15");
+        return dto;
+    }
+
+    static PaymentDetailsDTO paymentDetails() {
+        Map<String, Object> reservation = new LinkedHashMap<>();
+        reservation.put("id", "r1");
+        reservation.put("client", clientMap());
+        reservation.put("motorbike", motorbikeMap());
+        reservation.put("reservationDate", "2024-06-01");
+        reservation.put("startDate", "2024-06-10");
+        reservation.put("endDate", "2024-06-15");
+        PaymentDetailsDTO dto = new PaymentDetailsDTO();
+        dto.setId("p1");
+        dto.setReservationId("r1");
+        dto.setAmount(447.5);
+        dto.setPaymentDate("2024-06-02");
+        dto.setStatus("Paid");
+        dto.setReservationDetails(reservation);
+        return dto;
+    }
+
+    private static Map<String, Object> clientMap() {
+        Map<String, Object> client = new LinkedHashMap<>();
+        client.put("id", "c1");
+        client.put("name", "Jan Peeters");
+        client.put("email", "jan.peeters@example.com");
+        client.put("phone", "+32 470 12 34 56");
+        client.put("address", "Kleinhoefstraat 4, 2440 Geel");
+        return client;
+    }
+
+    private static Map<String, Object> motorbikeMap() {
+        Map<String, Object> motorbike = new LinkedHashMap<>();
+        motorbike.put("id", 1);
+        motorbike.put("make", "Yamaha");
+        motorbike.put("model", "MT-07");
+        motorbike.put("year", "2023");
+        motorbike.put("price", 89.5);
+        return motorbike;
+    }
+}
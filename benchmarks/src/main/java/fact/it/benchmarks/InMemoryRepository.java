@@ -0,0 +1,124 @@
+package fact.it.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Map-backed stand-in for a Spring Data repository interface, so service methods can be
+// benchmarked without a database. Covers the CRUD methods the services call plus derived
+// findBy<Property>, findBy<Property>In and streamAllBy queries; anything else throws.
+public final class InMemoryRepository<T, ID> implements InvocationHandler {
+
+    private final Map<ID, T> entities = new ConcurrentHashMap<>();
+    private final Function<T, ID> getId;
+    private final BiConsumer<T, ID> setId;
+    private final Supplier<ID> newId;
+
+    private InMemoryRepository(Function<T, ID> getId, BiConsumer<T, ID> setId, Supplier<ID> newId) {
+        this.getId = getId;
+        this.setId = setId;
+        this.newId = newId;
+    }
+
+    public static <R, T, ID> R create(Class<R> repositoryType, Function<T, ID> getId, BiConsumer<T, ID> setId,
+                                      Supplier<ID> newId) {
+        InMemoryRepository<T, ID> handler = new InMemoryRepository<>(getId, setId, newId);
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType}, handler));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "save":
+                return save((T) args[0]);
+            case "findById":
+                return Optional.ofNullable(entities.get((ID) args[0]));
+            case "findAllById":
+                return findAllById((Iterable<ID>) args[0]);
+            case "existsById":
+                return entities.containsKey((ID) args[0]);
+            case "findAll":
+                return new ArrayList<>(entities.values());
+            case "count":
+                return (long) entities.size();
+            case "deleteById":
+                entities.remove((ID) args[0]);
+                return null;
+            case "deleteAll":
+                entities.clear();
+                return null;
+            case "streamAllBy":
+                return new ArrayList<>(entities.values()).stream();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryRepository" + entities.keySet();
+            default:
+                if (name.startsWith("findBy") && name.endsWith("In") && args != null && args.length == 1
+                        && args[0] instanceof Collection<?> values) {
+                    return findByIn(name.substring("findBy".length(), name.length() - "In".length()), values);
+                }
+                if (name.startsWith("findBy") && args != null && args.length == 1) {
+                    return findBy(name.substring("findBy".length()), args[0]);
+                }
+                throw new UnsupportedOperationException(name);
+        }
+    }
+
+    private T save(T entity) {
+        ID id = getId.apply(entity);
+        if (id == null) {
+            id = newId.get();
+            setId.accept(entity, id);
+        }
+        entities.put(id, entity);
+        return entity;
+    }
+
+    private List<T> findAllById(Iterable<ID> ids) {
+        List<T> matches = new ArrayList<>();
+        for (ID id : ids) {
+            T entity = entities.get(id);
+            if (entity != null) {
+                matches.add(entity);
+            }
+        }
+        return matches;
+    }
+
+    private List<T> findByIn(String property, Collection<?> values) throws ReflectiveOperationException {
+        List<T> matches = new ArrayList<>();
+        for (T entity : entities.values()) {
+            if (values.contains(entity.getClass().getMethod("get" + property).invoke(entity))) {
+                matches.add(entity);
+            }
+        }
+        return matches;
+    }
+
+    private List<T> findBy(String property, Object value) throws ReflectiveOperationException {
+        List<T> matches = new ArrayList<>();
+        for (T entity : entities.values()) {
+            Object actual = entity.getClass().getMethod("get" + property).invoke(entity);
+            if (Objects.equals(actual, value)) {
+                matches.add(entity);
+            }
+        }
+        return matches;
+    }
+}
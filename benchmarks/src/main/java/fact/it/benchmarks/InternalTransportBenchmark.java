@@ -0,0 +1,195 @@
+package fact.it.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fact.it.clientservice.grpc.ClientLookupService;
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.repository.ClientRepository;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientPrefixIndex;
+import fact.it.clientservice.service.ClientService;
+import fact.it.grpc.ClientLookupGrpc;
+import fact.it.grpc.LookupProto;
+import fact.it.reservationservice.grpc.GrpcLookupClient;
+import fact.it.reservationservice.service.ReservationService;
+import fact.it.reservationservice.service.SingleFlight;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// The internal client lookups over both transports, on loopback: JSON over HTTP/1.1 through the
+// RestTemplate path ReservationService uses, against Protobuf over one HTTP/2 channel through
+// GrpcLookupClient, both pointed straight at their server (see StubLoadBalancer). Both servers
+// answer from the same ClientService over an in-memory repository.
+// The REST side is a plain JDK HttpServer rather than Spring MVC, so its server cost is if
+// anything understated.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// TCP_NODELAY like Tomcat; without it the JDK server's separate header and body writes hit delayed ACKs
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class InternalTransportBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int BATCH = 100;
+
+    @Param({"rest", "grpc"})
+    public String transport;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ExecutorService restExecutor;
+    private HttpServer restServer;
+    private Server grpcServer;
+    private ManagedChannel channel;
+    private GrpcLookupClient grpcLookupClient;
+    private ClientLookupGrpc.ClientLookupBlockingStub stub;
+    private RestTemplate restTemplate;
+    private ReservationService reservationService;
+    private List<String> batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        ClientRepository repository = InMemoryRepository.create(ClientRepository.class,
+                Client::getId, Client::setId, () -> null);
+        for (int i = 0; i < CLIENTS; i++) {
+            repository.save(new Client("c" + i, "Client " + i, "client" + i + "@example.com",
+                    "+32 470 " + i, "Street " + i));
+        }
+        ClientService clientService = new ClientService();
+        ReflectionTestUtils.setField(clientService, "clientRepository", repository);
+        ReflectionTestUtils.setField(clientService, "emailCache", new ClientEmailCache(10_000));
+        ReflectionTestUtils.setField(clientService, "prefixIndex", new ClientPrefixIndex());
+        batch = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            batch.add("c" + (i * 7 % (CLIENTS + 100)));
+        }
+
+        // GET /clients/{id} and POST /clients/existing, as ClientController serves them
+        restExecutor = Executors.newFixedThreadPool(4);
+        restServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        restServer.setExecutor(restExecutor);
+        restServer.createContext("/clients/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/clients/existing")) {
+                List<String> ids = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {
+                });
+                respond(exchange, objectMapper.writeValueAsBytes(clientService.getExistingIds(ids)));
+            } else {
+                Client client = clientService.getClientById(path.substring("/clients/".length()));
+                respond(exchange, client == null ? new byte[0] : objectMapper.writeValueAsBytes(client));
+            }
+        });
+        restServer.start();
+
+        ClientLookupService clientLookupService = new ClientLookupService();
+        ReflectionTestUtils.setField(clientLookupService, "clientService", clientService);
+        grpcServer = NettyServerBuilder.forAddress(new InetSocketAddress("localhost", 0))
+                .addService(clientLookupService)
+                .build()
+                .start();
+        grpcLookupClient = new GrpcLookupClient(StubLoadBalancer.to("localhost", grpcServer.getPort()),
+                new SimpleMeterRegistry(), Duration.ofSeconds(2));
+        channel = NettyChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        stub = ClientLookupGrpc.newBlockingStub(channel);
+
+        // The service-id URLs ReservationService uses, pointed at the loopback server
+        URI restBase = URI.create("http://localhost:" + restServer.getAddress().getPort());
+        restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()));
+        restTemplate.getInterceptors().add((request, body, execution) -> execution.execute(new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return UriComponentsBuilder.fromUri(super.getURI())
+                        .scheme(restBase.getScheme()).host(restBase.getHost()).port(restBase.getPort())
+                        .build(true).toUri();
+            }
+        }, body));
+
+        reservationService = new ReservationService();
+        ReflectionTestUtils.setField(reservationService, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(reservationService, "singleFlight", new SingleFlight(new SimpleMeterRegistry(), true));
+        if ("grpc".equals(transport)) {
+            ReflectionTestUtils.setField(reservationService, "grpcLookupClient", grpcLookupClient);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        grpcLookupClient.close();
+        channel.shutdownNow();
+        grpcServer.shutdownNow();
+        restServer.stop(0);
+        restExecutor.shutdownNow();
+    }
+
+    // One client lookup as GET /reservations/{id}/details does it
+    @Benchmark
+    public Object getClient() {
+        return reservationService.getClientDetails("c1");
+    }
+
+    // The existence check the integrity sweep does per batch
+    @Benchmark
+    public Object existingClients() {
+        return "grpc".equals(transport)
+                ? grpcLookupClient.existingClients(batch)
+                : restTemplate.postForObject("http://client-service/clients/existing", batch, String[].class);
+    }
+
+    // REST has no batched get, so its side is one GET per id
+    @Benchmark
+    public Object getClients() {
+        if ("grpc".equals(transport)) {
+            return stub.getClients(LookupProto.Ids.newBuilder().addAllIds(batch).build());
+        }
+        List<Object> clients = new ArrayList<>(batch.size());
+        for (String id : batch) {
+            clients.add(reservationService.getClientDetails(id));
+        }
+        return clients;
+    }
+}
@@ -0,0 +1,127 @@
+package fact.it.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fact.it.clientservice.model.Client;
+import fact.it.motorbikeservice.model.Motorbike;
+import fact.it.paymentservice.dto.PaymentDetailsDTO;
+import fact.it.paymentservice.model.Payment;
+import fact.it.reservationservice.dto.ReservationDetailsDTO;
+import fact.it.reservationservice.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Jackson round trips for the request/response bodies, using the same ObjectMapper setup as
+// Spring MVC's message converter.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Reservation reservation;
+    private Payment payment;
+    private Motorbike motorbike;
+    private Client client;
+    private ReservationDetailsDTO reservationDetails;
+    private PaymentDetailsDTO paymentDetails;
+
+    private byte[] reservationJson;
+    private byte[] paymentJson;
+    private byte[] motorbikeJson;
+    private byte[] clientJson;
+    private byte[] reservationDetailsJson;
+    private byte[] paymentDetailsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reservation = Fixtures.reservation();
+        payment = Fixtures.payment();
+        motorbike = Fixtures.motorbike();
+        client = Fixtures.client();
+        reservationDetails = Fixtures.reservationDetails();
+        paymentDetails = Fixtures.paymentDetails();
+
+        reservationJson = objectMapper.writeValueAsBytes(reservation);
+        paymentJson = objectMapper.writeValueAsBytes(payment);
+        motorbikeJson = objectMapper.writeValueAsBytes(motorbike);
+        clientJson = objectMapper.writeValueAsBytes(client);
+        reservationDetailsJson = objectMapper.writeValueAsBytes(reservationDetails);
+        paymentDetailsJson = objectMapper.writeValueAsBytes(paymentDetails);
+    }
+
+    @Benchmark
+    public byte[] serializeReservation() throws Exception {
+        return objectMapper.writeValueAsBytes(reservation);
+    }
+
+    @Benchmark
+    public Reservation deserializeReservation() throws Exception {
+        return objectMapper.readValue(reservationJson, Reservation.class);
+    }
+
+    @Benchmark
+    public byte[] serializePayment() throws Exception {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public Payment deserializePayment() throws Exception {
+        return objectMapper.readValue(paymentJson, Payment.class);
+    }
+
+    @Benchmark
+    public byte[] serializeMotorbike() throws Exception {
+        return objectMapper.writeValueAsBytes(motorbike);
+    }
+
+    @Benchmark
+    public Motorbike deserializeMotorbike() throws Exception {
+        return objectMapper.readValue(motorbikeJson, Motorbike.class);
+    }
+
+    @Benchmark
+    public byte[] serializeClient() throws Exception {
+        return objectMapper.writeValueAsBytes(client);
+    }
+
+    @Benchmark
+    public Client deserializeClient() throws Exception {
+        return objectMapper.readValue(clientJson, Client.class);
+    }
+
+    @Benchmark
+    public byte[] serializeReservationDetails() throws Exception {
+        return objectMapper.writeValueAsBytes(reservationDetails);
+    }
+
+    @Benchmark
+    public ReservationDetailsDTO deserializeReservationDetails() throws Exception {
+        return objectMapper.readValue(reservationDetailsJson, ReservationDetailsDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentDetails() throws Exception {
+        return objectMapper.writeValueAsBytes(paymentDetails);
+    }
+
+    @Benchmark
+    public PaymentDetailsDTO deserializePaymentDetails() throws Exception {
+        return objectMapper.readValue(paymentDetailsJson, PaymentDetailsDTO.class);
+    }
+}
@@ -0,0 +1,103 @@
+package fact.it.benchmarks;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import fact.it.apigateway.config.SecurityConfig;
+import fact.it.apigateway.security.JwkSetCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request JWT authentication at the gateway for a client that reuses its token.
+// verifyEveryRequest is the decoder the gateway used before: the RS256 signature and the claims
+// are checked on every call (keys already in memory, so no JWK fetch is counted).
+// cachedToken is SecurityConfig.jwtDecoder, which verifies a token once and then only hashes it.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String ISSUER = "https://accounts.google.com";
+    private static final String AUDIENCE = "benchmark-client-id";
+
+    private Path jwkSetFile;
+    private ReactiveJwtDecoder verifying;
+    private ReactiveJwtDecoder caching;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey signingKey = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+        JWKSet publicKeys = new JWKSet(signingKey.toPublicJWK());
+
+        NimbusReactiveJwtDecoder plain = NimbusReactiveJwtDecoder
+                .withJwkSource(jwt -> Flux.fromIterable(publicKeys.getKeys())).build();
+        plain.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        verifying = plain;
+
+        jwkSetFile = Files.createTempFile("jwks", ".json");
+        Files.writeString(jwkSetFile, publicKeys.toString());
+        JwkSetCache jwkSetCache = new JwkSetCache("http://unused.invalid/certs", jwkSetFile.toUri().toString(),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), WebClient.builder());
+        jwkSetCache.start();
+        caching = new SecurityConfig().jwtDecoder(jwkSetCache, ISSUER, List.of(AUDIENCE), 100_000, Duration.ofHours(1));
+
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("benchmark-user")
+                .issuer(ISSUER)
+                .audience(AUDIENCE)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        token = jwt.serialize();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(jwkSetFile);
+    }
+
+    @Benchmark
+    public Jwt verifyEveryRequest() {
+        return verifying.decode(token).block();
+    }
+
+    @Benchmark
+    public Jwt cachedToken() {
+        return caching.decode(token).block();
+    }
+}
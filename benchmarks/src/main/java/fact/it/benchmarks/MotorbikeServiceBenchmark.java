@@ -0,0 +1,57 @@
+package fact.it.benchmarks;
+
+import fact.it.motorbikeservice.dto.MotorbikeDTO;
+import fact.it.motorbikeservice.model.Motorbike;
+import fact.it.motorbikeservice.repository.MotorbikeRepository;
+import fact.it.motorbikeservice.service.MotorbikeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorbikeServiceBenchmark {
+
+    private MotorbikeService motorbikeService;
+    private MotorbikeDTO motorbikeDTO;
+
+    @Setup
+    public void setUp() {
+        // Generated ids cycle so create benchmarks keep the store bounded over long runs
+        AtomicLong sequence = new AtomicLong();
+        MotorbikeRepository repository = InMemoryRepository.create(MotorbikeRepository.class,
+                Motorbike::getId, Motorbike::setId, () -> (sequence.getAndIncrement() & 1023) + 1);
+        motorbikeService = new MotorbikeService(repository);
+        motorbikeDTO = new MotorbikeDTO("Yamaha", "MT-07", "2023", 89.5);
+        motorbikeService.createMotorbike(motorbikeDTO);
+    }
+
+    @Benchmark
+    public Motorbike createMotorbike() {
+        return motorbikeService.createMotorbike(motorbikeDTO);
+    }
+
+    @Benchmark
+    public Motorbike updateMotorbike() {
+        return motorbikeService.updateMotorbike(1L, motorbikeDTO);
+    }
+
+    @Benchmark
+    public Motorbike getMotorbikeById() {
+        return motorbikeService.getMotorbikeById(1L);
+    }
+}
@@ -0,0 +1,80 @@
+package fact.it.benchmarks;
+
+import fact.it.paymentservice.controller.PaymentController;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.repository.PaymentRepository;
+import fact.it.paymentservice.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PaymentService over an in-memory repository, with reservation lookups answered by a stubbed
+// RestTemplate.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    private PaymentService paymentService;
+    private PaymentController paymentController;
+    private Payment update;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Generated ids cycle so save benchmarks keep the store bounded over long runs
+        AtomicLong sequence = new AtomicLong();
+        PaymentRepository repository = InMemoryRepository.create(PaymentRepository.class,
+                Payment::getId, Payment::setId, () -> "p" + (sequence.incrementAndGet() & 1023));
+        String reservationDetails = Jackson2ObjectMapperBuilder.json().build().writeValueAsString(Fixtures.reservationDetails());
+        paymentService = new PaymentService();
+        ReflectionTestUtils.setField(paymentService, "paymentRepository", repository);
+        ReflectionTestUtils.setField(paymentService, "restTemplate", StubHttp.restTemplate(Map.of(
+                "/reservations/r1", Fixtures.RESERVATION_JSON,
+                "/reservations/r1/details", reservationDetails)));
+        paymentService.savePayment(Fixtures.payment());
+        paymentController = new PaymentController();
+        ReflectionTestUtils.setField(paymentController, "paymentService", paymentService);
+        update = Fixtures.payment();
+        update.setStatus("Refunded");
+    }
+
+    @Benchmark
+    public Payment savePayment() {
+        Payment payment = Fixtures.payment();
+        payment.setId(null);
+        return paymentService.savePayment(payment);
+    }
+
+    @Benchmark
+    public Payment updatePayment() {
+        return paymentService.updatePayment("p1", update);
+    }
+
+    @Benchmark
+    public Payment getPaymentById() {
+        return paymentService.getPaymentById("p1");
+    }
+
+    // GET /payments/{id}/details up to serialization, through the controller
+    @Benchmark
+    public ResponseEntity<?> getPaymentDetails() {
+        return paymentController.getPaymentDetails("p1");
+    }
+}
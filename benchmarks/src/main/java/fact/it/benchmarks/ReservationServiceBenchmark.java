@@ -0,0 +1,81 @@
+package fact.it.benchmarks;
+
+import fact.it.reservationservice.controller.ReservationController;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.service.ReservationService;
+import fact.it.reservationservice.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ReservationService over an in-memory repository, with client/motorbike lookups answered by a
+// stubbed RestTemplate so the numbers cover validation, JSON parsing and coalescing only.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    private ReservationService reservationService;
+    private ReservationController reservationController;
+    private Reservation update;
+
+    @Setup
+    public void setUp() {
+        // Generated ids cycle so save benchmarks keep the store bounded over long runs
+        AtomicLong sequence = new AtomicLong();
+        ReservationRepository repository = InMemoryRepository.create(ReservationRepository.class,
+                Reservation::getId, Reservation::setId, () -> "r" + (sequence.incrementAndGet() & 1023));
+        reservationService = new ReservationService();
+        ReflectionTestUtils.setField(reservationService, "reservationRepository", repository);
+        ReflectionTestUtils.setField(reservationService, "restTemplate", StubHttp.restTemplate(Map.of(
+                "/clients/c1", Fixtures.CLIENT_JSON,
+                "/motorbikes/1", Fixtures.MOTORBIKE_JSON)));
+        ReflectionTestUtils.setField(reservationService, "singleFlight", new SingleFlight(new SimpleMeterRegistry(), true));
+        reservationService.saveReservation(Fixtures.reservation());
+        reservationController = new ReservationController();
+        ReflectionTestUtils.setField(reservationController, "reservationService", reservationService);
+        update = Fixtures.reservation();
+        update.setEndDate("2024-06-16");
+    }
+
+    @Benchmark
+    public Reservation saveReservation() {
+        Reservation reservation = Fixtures.reservation();
+        reservation.setId(null);
+        return reservationService.saveReservation(reservation);
+    }
+
+    @Benchmark
+    public Reservation updateReservation() {
+        return reservationService.updateReservation("r1", update);
+    }
+
+    @Benchmark
+    public Reservation getReservationById() {
+        return reservationService.getReservationById("r1");
+    }
+
+    // GET /reservations/{id}/details up to serialization, through the controller
+    @Benchmark
+    public ResponseEntity<?> getReservationDetails() {
+        return reservationController.getReservationDetails("r1");
+    }
+}
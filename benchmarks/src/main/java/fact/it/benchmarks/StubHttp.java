@@ -0,0 +1,35 @@
+package fact.it.benchmarks;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// RestTemplate whose requests never leave the JVM: the path is looked up in a fixed map of JSON
+// bodies (404 when absent). Response parsing still goes through the real message converters.
+public final class StubHttp {
+
+    private StubHttp() {
+    }
+
+    public static RestTemplate restTemplate(Map<String, String> bodiesByPath) {
+        Map<String, byte[]> bodies = new HashMap<>();
+        bodiesByPath.forEach((path, body) -> bodies.put(path, body.getBytes(StandardCharsets.UTF_8)));
+        return new RestTemplate((uri, httpMethod) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(httpMethod, uri);
+            byte[] body = bodies.get(uri.getPath());
+            MockClientHttpResponse response = body == null
+                    ? new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND)
+                    : new MockClientHttpResponse(body, HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            request.setResponse(response);
+            return request;
+        });
+    }
+}
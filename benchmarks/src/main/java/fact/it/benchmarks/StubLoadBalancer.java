@@ -0,0 +1,59 @@
+package fact.it.benchmarks;
+
+import fact.it.grpc.LoadBalancedChannels;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+// LoadBalancerClient that sends every service id to one local instance, the gRPC counterpart of
+// pointing the RestTemplate at a loopback server: the transport is measured, not instance selection.
+public final class StubLoadBalancer {
+
+    private StubLoadBalancer() {
+    }
+
+    public static LoadBalancerClient to(String host, int grpcPort) {
+        return new LoadBalancerClient() {
+            private final ServiceInstance instance = new DefaultServiceInstance("local", "local", host, 0, false,
+                    Map.of(LoadBalancedChannels.GRPC_PORT_METADATA, Integer.toString(grpcPort)));
+
+            @Override
+            public ServiceInstance choose(String serviceId) {
+                return instance;
+            }
+
+            @Override
+            public <T> ServiceInstance choose(String serviceId, Request<T> request) {
+                return instance;
+            }
+
+            @Override
+            public <T> T execute(String serviceId, LoadBalancerRequest<T> request) throws IOException {
+                return execute(serviceId, instance, request);
+            }
+
+            @Override
+            public <T> T execute(String serviceId, ServiceInstance serviceInstance, LoadBalancerRequest<T> request)
+                    throws IOException {
+                try {
+                    return request.apply(serviceInstance);
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+
+            @Override
+            public URI reconstructURI(ServiceInstance serviceInstance, URI original) {
+                return original;
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package fact.it.benchmarks;
+
+import fact.it.reservationservice.analytics.OccupancyCalculator;
+import fact.it.reservationservice.analytics.ReservationDays;
+import fact.it.reservationservice.analytics.UtilizationService;
+import fact.it.reservationservice.analytics.UtilizationService.MotorbikeRef;
+import fact.it.reservationservice.dto.UtilizationReportDTO;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Fleet utilization over synthetic reservations (200 motorbikes, one year, 1-14 day rentals).
+// occupancy is the fork/join day-array pass alone over 10M reservations; threshold=2147483647
+// runs it as one slice, for comparison with the split version. report is the whole
+// GET /reservations/analytics/utilization path over 1M reservations streamed from a stub
+// repository, including date parsing.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class UtilizationBenchmark {
+
+    private static final int MOTORBIKES = 200;
+    private static final int DAYS = 365;
+    private static final LocalDate FROM = LocalDate.parse("2024-01-01");
+
+    @Param({"10000000"})
+    public int reservations;
+
+    @Param({"2147483647", "65536"})
+    public int threshold;
+
+    private ReservationDays reservationDays;
+    private UtilizationService utilizationService;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        reservationDays = new ReservationDays();
+        for (int i = 0; i < reservations; i++) {
+            int first = random.nextInt(DAYS);
+            reservationDays.add(random.nextInt(MOTORBIKES), first, Math.min(DAYS - 1, first + random.nextInt(14)));
+        }
+
+        ReservationRepository repository = (ReservationRepository) Proxy.newProxyInstance(
+                ReservationRepository.class.getClassLoader(), new Class<?>[]{ReservationRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("stream")) {
+                        return syntheticReservations(reservations / 10);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        MotorbikeRef[] fleet = LongStream.rangeClosed(1, MOTORBIKES).mapToObj(MotorbikeRef::new).toArray(MotorbikeRef[]::new);
+        RestTemplate restTemplate = new RestTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+                return (T) fleet;
+            }
+        };
+        utilizationService = new UtilizationService();
+        ReflectionTestUtils.setField(utilizationService, "reservationRepository", repository);
+        ReflectionTestUtils.setField(utilizationService, "restTemplate", restTemplate);
+        // The range is older than tiering.retention, so the report also reads the (empty) archive
+        ReflectionTestUtils.setField(utilizationService, "reservationArchive", new ReservationArchive(null, null) {
+            @Override
+            public Stream<Reservation> streamOverlapping(String from, String to) {
+                return Stream.empty();
+            }
+        });
+        ReflectionTestUtils.setField(utilizationService, "forkThreshold", threshold);
+    }
+
+    private static Stream<Reservation> syntheticReservations(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        return Stream.generate(() -> {
+            LocalDate start = FROM.plusDays(random.nextInt(DAYS));
+            return new Reservation(null, null, 1L + random.nextInt(MOTORBIKES), null,
+                    start.toString(), start.plusDays(random.nextInt(14)).toString());
+        }).limit(count);
+    }
+
+    @Benchmark
+    public long[][] occupancy() {
+        return OccupancyCalculator.occupancy(reservationDays, MOTORBIKES, DAYS, threshold);
+    }
+
+    @Benchmark
+    public UtilizationReportDTO report() {
+        return utilizationService.getUtilization(FROM, FROM.plusDays(DAYS - 1), "week");
+    }
+}
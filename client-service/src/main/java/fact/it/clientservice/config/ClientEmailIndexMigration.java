@@ -0,0 +1,125 @@
+package fact.it.clientservice.config;
+
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Creates the unique index on clients.email. Emails are stored lowercased, so a plain unique
+// index is case-insensitive. Emails written before normalization are rewritten first, or lookups
+// (which normalize the requested email) would no longer find them. Duplicates that predate the
+// index are reported, left as they are, and the index is left out until they are cleaned up,
+// instead of failing startup.
+@Component
+@RequiredArgsConstructor
+public class ClientEmailIndexMigration implements ApplicationRunner {
+
+    public static final String EMAIL_INDEX = "email_unique";
+
+    private static final Logger log = LoggerFactory.getLogger(ClientEmailIndexMigration.class);
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ClientEmailCache emailCache;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Document> duplicates = findDuplicateEmails();
+        Set<String> duplicateIds = new HashSet<>();
+        for (Document duplicate : duplicates) {
+            for (Object id : duplicate.getList("ids", Object.class)) {
+                duplicateIds.add(id.toString());
+            }
+        }
+        long normalized = normalizeEmails(duplicateIds);
+        if (normalized > 0) {
+            log.info("Normalized the email of {} clients", normalized);
+        }
+        if (!duplicates.isEmpty()) {
+            for (Document duplicate : duplicates) {
+                log.warn("Duplicate client email '{}' on {} clients: {}",
+                        duplicate.get("_id"), duplicate.get("count"), duplicate.get("ids"));
+            }
+            log.warn("Skipping unique index on clients.email: {} duplicate emails found", duplicates.size());
+            return;
+        }
+        mongoTemplate.indexOps(Client.class)
+                .ensureIndex(new Index().on("email", Sort.Direction.ASC).unique().named(EMAIL_INDEX));
+    }
+
+    // Rewrites every email that isn't trimmed and lowercased, in batches, except on the clients
+    // that would collide once normalized. Returns the number of clients rewritten.
+    long normalizeEmails(Set<String> skipIds) {
+        Query query = new Query(Criteria.where("email").regex("\\p{Lu}|^\\s|\\s$"));
+        query.fields().include("_id").include("email");
+        long normalized = 0;
+        List<Client> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Client> clients = mongoTemplate.stream(query, Client.class)) {
+            for (Client client : (Iterable<Client>) clients::iterator) {
+                if (skipIds.contains(client.getId())
+                        || client.getEmail().equals(ClientService.normalizeEmail(client.getEmail()))) {
+                    continue;
+                }
+                batch.add(client);
+                if (batch.size() == BATCH_SIZE) {
+                    normalized += writeNormalized(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            normalized += writeNormalized(batch);
+        }
+        return normalized;
+    }
+
+    private int writeNormalized(List<Client> batch) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Client.class);
+        for (Client client : batch) {
+            bulkOps.updateOne(new Query(Criteria.where("_id").is(client.getId())),
+                    Update.update("email", ClientService.normalizeEmail(client.getEmail())));
+        }
+        bulkOps.execute();
+        // Lookups that ran before the rewrite may have cached an empty result
+        for (Client client : batch) {
+            emailCache.evict(ClientService.normalizeEmail(client.getEmail()));
+        }
+        return batch.size();
+    }
+
+    // Groups clients by lowercased, trimmed email and returns every group with more than one member
+    List<Document> findDuplicateEmails() {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("email", new Document("$type", "string"))),
+                new Document("$group", new Document("_id",
+                        new Document("$toLower", new Document("$trim", new Document("input", "$email"))))
+                        .append("count", new Document("$sum", 1))
+                        .append("ids", new Document("$push", "$_id"))),
+                new Document("$match", new Document("count", new Document("$gt", 1))));
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Client.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .into(new ArrayList<>());
+    }
+}
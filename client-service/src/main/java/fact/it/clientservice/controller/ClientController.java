@@ -1,10 +1,18 @@
 package fact.it.clientservice.controller;
 
+import fact.it.clientservice.dto.ClientImportResultDTO;
 import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientImportService;
 import fact.it.clientservice.service.ClientService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +23,9 @@ public class ClientController {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private ClientImportService clientImportService;
+
     @GetMapping
     public List<Client> getAllClients() {
         return clientService.getAllClients();
@@ -25,9 +36,30 @@ public class ClientController {
         return clientService.getClientById(id);
     }
 
+    @GetMapping("/suggest")
+    public List<Client> suggestClients(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return clientService.suggestClients(prefix, limit);
+    }
+
     @PostMapping
-    public Client saveClient(@RequestBody Client client) {
-        return clientService.saveClient(client);
+    public ResponseEntity<?> saveClient(@RequestBody Client client) {
+        try {
+            return ResponseEntity.ok(clientService.saveClient(client));
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email already in use");
+        }
+    }
+
+    // Bulk existence check for other services: returns the ids from the body that exist
+    @PostMapping("/existing")
+    public List<String> getExistingIds(@RequestBody List<String> ids) {
+        return clientService.getExistingIds(ids);
+    }
+
+    @PostMapping(value = "/import", consumes = {ClientImportService.NDJSON, ClientImportService.CSV})
+    public ClientImportResultDTO importClients(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                               InputStream body) throws IOException {
+        return clientImportService.importClients(body, contentType);
     }
 
     @PostMapping("/test")
@@ -42,8 +74,12 @@ public class ClientController {
     }
 
     @PutMapping("/{id}")
-    public Client updateClient(@PathVariable String id, @RequestBody Client client) {
-        return clientService.updateClient(id, client);
+    public ResponseEntity<?> updateClient(@PathVariable String id, @RequestBody Client client) {
+        try {
+            return ResponseEntity.ok(clientService.updateClient(id, client));
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email already in use");
+        }
     }
 
     @GetMapping(params = "email")
@@ -0,0 +1,26 @@
+package fact.it.clientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ClientImportResultDTO {
+    private long received;
+    private long inserted;
+    private long updated;
+    private long duplicates;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
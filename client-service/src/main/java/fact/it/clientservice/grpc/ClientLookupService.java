@@ -0,0 +1,63 @@
+package fact.it.clientservice.grpc;
+
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientService;
+import fact.it.grpc.ClientLookupGrpc;
+import fact.it.grpc.LookupProto;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// The ClientLookup gRPC service: the same reads as GET /clients/{id} and POST /clients/existing,
+// plus a batched get, for the other services
+@Component
+public class ClientLookupService extends ClientLookupGrpc.ClientLookupImplBase {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Override
+    public void getClient(LookupProto.Id request, StreamObserver<LookupProto.Client> responseObserver) {
+        Client client = clientService.getClientById(request.getId());
+        if (client == null) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription("Client not found: " + request.getId()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(toMessage(client));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getClients(LookupProto.Ids request, StreamObserver<LookupProto.Clients> responseObserver) {
+        LookupProto.Clients.Builder clients = LookupProto.Clients.newBuilder();
+        for (Client client : clientService.getClientsByIds(request.getIdsList())) {
+            clients.addClients(toMessage(client));
+        }
+        responseObserver.onNext(clients.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void existingClients(LookupProto.Ids request, StreamObserver<LookupProto.Ids> responseObserver) {
+        responseObserver.onNext(LookupProto.Ids.newBuilder().addAllIds(clientService.getExistingIds(request.getIdsList())).build());
+        responseObserver.onCompleted();
+    }
+
+    static LookupProto.Client toMessage(Client client) {
+        LookupProto.Client.Builder message = LookupProto.Client.newBuilder().setId(client.getId());
+        if (client.getName() != null) {
+            message.setName(client.getName());
+        }
+        if (client.getEmail() != null) {
+            message.setEmail(client.getEmail());
+        }
+        if (client.getPhone() != null) {
+            message.setPhone(client.getPhone());
+        }
+        if (client.getAddress() != null) {
+            message.setAddress(client.getAddress());
+        }
+        return message.build();
+    }
+}
@@ -2,10 +2,19 @@ package fact.it.clientservice.repository;
 
 import fact.it.clientservice.model.Client;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ClientRepository extends MongoRepository<Client, String> {
     // You can add custom query methods if needed
     List<Client> findByEmail(String email);
+
+    Stream<Client> streamAllBy();
+
+    // Only the ids come back; used for bulk existence checks
+    @Query(fields = "{ '_id': 1 }")
+    List<Client> findByIdIn(Collection<String> ids);
 }
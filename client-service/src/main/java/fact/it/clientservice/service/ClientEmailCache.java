@@ -0,0 +1,64 @@
+package fact.it.clientservice.service;
+
+import fact.it.clientservice.model.Client;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bounded LRU cache for email lookups. Keys are normalized emails. It keeps its own copies of the
+// clients and hands out fresh ones, so a caller changing a result can't change the cache.
+// Guarded by synchronized. On JDK 21 a virtual thread waiting for a contended monitor does pin its
+// carrier (that changes with JDK 24, JEP 491), but every critical section here is a few map
+// operations without I/O, so a waiter is pinned for about as long as a lock hand-off takes.
+@Component
+public class ClientEmailCache {
+
+    private final Map<String, List<Client>> entries;
+
+    // Bumped on every eviction so a lookup that raced with a write doesn't cache stale data
+    private long generation;
+
+    public ClientEmailCache(@Value("${client.email-cache.max-size:10000}") int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Client>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized List<Client> get(String email) {
+        List<Client> clients = entries.get(email);
+        return clients == null ? null : copyOf(clients);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(String email, List<Client> clients, long expectedGeneration) {
+        if (generation == expectedGeneration) {
+            entries.put(email, copyOf(clients));
+        }
+    }
+
+    public synchronized void evict(String email) {
+        generation++;
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static List<Client> copyOf(List<Client> clients) {
+        return clients.stream()
+                .map(client -> new Client(client.getId(), client.getName(), client.getEmail(), client.getPhone(), client.getAddress()))
+                .toList();
+    }
+}
@@ -0,0 +1,251 @@
+package fact.it.clientservice.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import fact.it.clientservice.dto.ClientDTO;
+import fact.it.clientservice.dto.ClientImportResultDTO;
+import fact.it.clientservice.model.Client;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Streams NDJSON or CSV client records and upserts them by email in unordered bulk batches.
+// Only one batch is held in memory at a time: repeated emails are caught within a batch, and a
+// repeat in a later batch is simply another upsert of the same client. A write the server rejects
+// is reported against its input row and the rest of the batch and the import carry on.
+@Service
+public class ClientImportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ClientEmailCache emailCache;
+
+    @Autowired
+    private ClientPrefixIndex prefixIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${client.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    // A parsed record and the input row it came from
+    private record Pending(long row, ClientDTO record) {
+    }
+
+    public ClientImportResultDTO importClients(InputStream body, String contentType) throws IOException {
+        boolean csv = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV);
+        ObjectReader clientReader = objectMapper.readerFor(ClientDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ClientImportResultDTO result = new ClientImportResultDTO();
+        // Keyed by email, so a repeated email within the batch is reported instead of written twice
+        Map<String, Pending> batch = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        String[] header = null;
+        String line;
+        long row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            long recordRow = row;
+            ClientDTO record;
+            try {
+                if (csv) {
+                    line = readQuotedContinuation(line, reader);
+                    row += line.chars().filter(c -> c == '\n').count();
+                    List<String> fields = parseCsvLine(line);
+                    if (header == null) {
+                        header = fields.stream().map(f -> f.trim().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+                        continue;
+                    }
+                    record = fromCsv(header, fields);
+                } else {
+                    record = clientReader.readValue(line);
+                }
+            } catch (IOException | RuntimeException e) {
+                result.setReceived(result.getReceived() + 1);
+                addError(result, recordRow, "Unparseable record: " + e.getMessage());
+                continue;
+            }
+            result.setReceived(result.getReceived() + 1);
+
+            String email = ClientService.normalizeEmail(record.getEmail());
+            if (email == null || email.isEmpty()) {
+                addError(result, recordRow, "Missing email");
+                continue;
+            }
+            if (batch.containsKey(email)) {
+                result.setDuplicates(result.getDuplicates() + 1);
+                continue;
+            }
+            record.setEmail(email);
+            batch.put(email, new Pending(recordRow, record));
+            if (batch.size() >= batchSize) {
+                flush(batch, result);
+            }
+        }
+        flush(batch, result);
+        return result;
+    }
+
+    private void flush(Map<String, Pending> batch, ClientImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Pending> pending = new ArrayList<>(batch.values());
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Client.class);
+        for (Pending entry : pending) {
+            ClientDTO record = entry.record();
+            Update update = new Update()
+                    .set("name", record.getName())
+                    .set("email", record.getEmail())
+                    .set("phone", record.getPhone())
+                    .set("address", record.getAddress());
+            bulkOps.upsert(Query.query(Criteria.where("email").is(record.getEmail())), update);
+        }
+        BulkWriteResult writeResult;
+        List<BulkWriteError> writeErrors = List.of();
+        try {
+            writeResult = bulkOps.execute();
+        } catch (BulkOperationException e) {
+            // Unordered, so every write without an error went through
+            writeResult = e.getResult();
+            writeErrors = e.getErrors();
+        }
+        result.setInserted(result.getInserted() + writeResult.getUpserts().size());
+        result.setUpdated(result.getUpdated() + writeResult.getMatchedCount());
+        Set<Integer> failed = new HashSet<>();
+        for (BulkWriteError error : writeErrors) {
+            failed.add(error.getIndex());
+            addError(result, pending.get(error.getIndex()).row(), "Write failed: " + error.getMessage());
+        }
+
+        // Keep the email cache and typeahead index in line with what was just written. Inserted
+        // clients get their id from the upsert; updated ones are already in the prefix index.
+        Map<Integer, String> insertedIds = new HashMap<>();
+        for (BulkWriteUpsert upsert : writeResult.getUpserts()) {
+            insertedIds.put(upsert.getIndex(), upsert.getId().isObjectId()
+                    ? upsert.getId().asObjectId().getValue().toHexString()
+                    : upsert.getId().asString().getValue());
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            ClientDTO record = pending.get(i).record();
+            emailCache.evict(record.getEmail());
+            String id = insertedIds.getOrDefault(i, prefixIndex.idOfEmail(record.getEmail()));
+            if (id != null) {
+                prefixIndex.put(new Client(id, record.getName(), record.getEmail(), record.getPhone(), record.getAddress()));
+            }
+        }
+        batch.clear();
+    }
+
+    private static void addError(ClientImportResultDTO result, long row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ClientImportResultDTO.RowError(row, message));
+        }
+    }
+
+    private static ClientDTO fromCsv(String[] header, List<String> fields) {
+        ClientDTO record = new ClientDTO();
+        for (int i = 0; i < header.length && i < fields.size(); i++) {
+            String value = fields.get(i).isEmpty() ? null : fields.get(i);
+            switch (header[i]) {
+                case "name" -> record.setName(value);
+                case "email" -> record.setEmail(value);
+                case "phone" -> record.setPhone(value);
+                case "address" -> record.setAddress(value);
+                default -> { }
+            }
+        }
+        return record;
+    }
+
+    // A quoted CSV field may contain line breaks; keep reading until the quotes are balanced
+    private static String readQuotedContinuation(String line, BufferedReader reader) throws IOException {
+        StringBuilder builder = new StringBuilder(line);
+        while (countQuotes(builder) % 2 != 0) {
+            String next = reader.readLine();
+            if (next == null) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            builder.append('\n').append(next);
+        }
+        return builder.toString();
+    }
+
+    private static int countQuotes(CharSequence value) {
+        int count = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -0,0 +1,189 @@
+package fact.it.clientservice.service;
+
+import fact.it.clientservice.model.Client;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// In-memory prefix index over client name, email and phone for typeahead search.
+// Terms are kept in a sorted skip list keyed by "term\0clientId", so a prefix lookup is a
+// log(n) seek followed by a short range scan, and writes can be applied incrementally.
+@Component
+public class ClientPrefixIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final char SEPARATOR = '\u0000';
+
+    // Upper bound on the range scan, so a very short prefix can't walk the whole index
+    private static final int SCAN_FACTOR = 8;
+
+    private volatile Index current = new Index();
+
+    // The index being loaded by rebuild, if any. Writes go to it as well as to the current one.
+    private volatile Index rebuilding;
+
+    public void put(Client client) {
+        if (client == null || client.getId() == null) {
+            return;
+        }
+        Client snapshot = new Client(client.getId(), client.getName(), client.getEmail(),
+                client.getPhone(), client.getAddress());
+        write(snapshot.getId(), snapshot);
+    }
+
+    public void remove(String id) {
+        if (id != null) {
+            write(id, null);
+        }
+    }
+
+    // Loads a fresh index from the stored clients and swaps it in when done. Until then suggestions
+    // come from the current index; writes made meanwhile win over the (older) rows being loaded.
+    public void rebuild(Stream<Client> clients) {
+        Index next = new Index();
+        rebuilding = next;
+        clients.forEach(client -> {
+            if (client != null && client.getId() != null) {
+                next.load(new Client(client.getId(), client.getName(), client.getEmail(),
+                        client.getPhone(), client.getAddress()));
+            }
+        });
+        current = next;
+        rebuilding = null;
+        next.written.clear();
+    }
+
+    private void write(String id, Client client) {
+        // Read rebuilding first: once it is null again the rebuilt index is already current
+        Index pending = rebuilding;
+        Index target = current;
+        target.set(id, client, false);
+        if (pending != null && pending != target) {
+            pending.set(id, client, true);
+        }
+    }
+
+    // Id of the indexed client with this (normalized) email, or null
+    public String idOfEmail(String email) {
+        return email == null ? null : current.idsByEmail.get(email);
+    }
+
+    public int size() {
+        return current.clients.size();
+    }
+
+    public List<Client> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int max = Math.min(Math.max(limit, 0), MAX_LIMIT);
+        if (normalized.isEmpty() || max == 0) {
+            return List.of();
+        }
+        Index index = current;
+        Set<String> ids = new LinkedHashSet<>();
+        int scanned = 0;
+        for (Map.Entry<String, String> entry : index.terms.tailMap(normalized, true).entrySet()) {
+            if (!entry.getKey().startsWith(normalized) || scanned++ >= max * SCAN_FACTOR) {
+                break;
+            }
+            ids.add(entry.getValue());
+            if (ids.size() == max) {
+                break;
+            }
+        }
+        List<Client> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Client client = index.clients.get(id);
+            if (client != null) {
+                result.add(client);
+            }
+        }
+        return result;
+    }
+
+    private static final class Index {
+        private final NavigableMap<String, String> terms = new ConcurrentSkipListMap<>();
+        private final Map<String, Client> clients = new ConcurrentHashMap<>();
+        private final Map<String, String> idsByEmail = new ConcurrentHashMap<>();
+        // Ids written while this index is being rebuilt; the rows loaded for them are older
+        private final Set<String> written = ConcurrentHashMap.newKeySet();
+
+        // compute serializes the updates of one id, so its terms always match its latest version.
+        // A null client removes the id.
+        private void set(String id, Client client, boolean duringRebuild) {
+            clients.compute(id, (key, previous) -> {
+                if (duringRebuild) {
+                    written.add(id);
+                }
+                return replace(id, previous, client);
+            });
+        }
+
+        private void load(Client client) {
+            clients.compute(client.getId(), (key, previous) ->
+                    written.contains(key) ? previous : replace(key, previous, client));
+        }
+
+        private Client replace(String id, Client previous, Client client) {
+            if (previous != null) {
+                if (previous.getEmail() != null) {
+                    idsByEmail.remove(previous.getEmail(), id);
+                }
+                for (String term : termsOf(previous)) {
+                    terms.remove(term + SEPARATOR + id);
+                }
+            }
+            if (client != null) {
+                if (client.getEmail() != null) {
+                    idsByEmail.put(client.getEmail(), id);
+                }
+                for (String term : termsOf(client)) {
+                    terms.put(term + SEPARATOR + id, id);
+                }
+            }
+            return client;
+        }
+    }
+
+    // Full name, each name word, email and the digits of the phone number
+    private static Set<String> termsOf(Client client) {
+        Set<String> result = new LinkedHashSet<>();
+        String name = normalize(client.getName());
+        if (!name.isEmpty()) {
+            result.add(name);
+            for (String word : name.split("\\s+")) {
+                result.add(word);
+            }
+        }
+        String email = normalize(client.getEmail());
+        if (!email.isEmpty()) {
+            result.add(email);
+        }
+        String phone = client.getPhone() == null ? "" : client.getPhone().replaceAll("\\D", "");
+        if (!phone.isEmpty()) {
+            result.add(phone);
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        // Phone-like input ("+32 470-12") is matched on digits only
+        if (!normalized.isEmpty() && normalized.matches("[\\d\\s+().-]+")) {
+            return normalized.replaceAll("\\D", "");
+        }
+        return normalized;
+    }
+}
@@ -2,18 +2,39 @@ package fact.it.clientservice.service;
 
 import fact.it.clientservice.model.Client;
 import fact.it.clientservice.repository.ClientRepository;
-import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 @Service
 public class ClientService {
 
+    private static final Logger log = LoggerFactory.getLogger(ClientService.class);
+
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private ClientEmailCache emailCache;
+
+    @Autowired
+    private ClientPrefixIndex prefixIndex;
+
+    // Loads the typeahead index once at startup; writes keep it current afterwards
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildPrefixIndex() {
+        try (Stream<Client> clients = clientRepository.streamAllBy()) {
+            prefixIndex.rebuild(clients);
+        }
+    }
+
     public List<Client> getAllClients() {
         return clientRepository.findAll();
     }
@@ -23,28 +44,78 @@ public class ClientService {
     }
 
     public Client saveClient(Client client) {
+        client.setEmail(normalizeEmail(client.getEmail()));
+        // A save with an existing id replaces that client, so its old email must go too
+        if (client.getId() != null) {
+            clientRepository.findById(client.getId()).ifPresent(existing -> emailCache.evict(existing.getEmail()));
+        }
         Client savedClient = clientRepository.save(client);
-        System.out.println("Saved client: " + savedClient);  // Log saved client
+        emailCache.evict(client.getEmail());
+        prefixIndex.put(savedClient);
+        log.debug("Saved client: {}", savedClient);
         return savedClient;
     }
 
     public void deleteClient(String id) {
+        Client existingClient = clientRepository.findById(id).orElse(null);
         clientRepository.deleteById(id);
+        if (existingClient != null) {
+            emailCache.evict(existingClient.getEmail());
+        }
+        prefixIndex.remove(id);
     }
 
     public Client updateClient(String id, Client updatedClient) {
         Client existingClient = clientRepository.findById(id).orElse(null);
         if (existingClient != null) {
+            String previousEmail = existingClient.getEmail();
             existingClient.setName(updatedClient.getName());
-            existingClient.setEmail(updatedClient.getEmail());
+            existingClient.setEmail(normalizeEmail(updatedClient.getEmail()));
             existingClient.setPhone(updatedClient.getPhone());
             existingClient.setAddress(updatedClient.getAddress());
-            return clientRepository.save(existingClient);
+            Client savedClient = clientRepository.save(existingClient);
+            emailCache.evict(previousEmail);
+            emailCache.evict(existingClient.getEmail());
+            prefixIndex.put(savedClient);
+            return savedClient;
         }
         return null;
     }
 
     public List<Client> getClientsByEmail(String email) {
-        return clientRepository.findByEmail(email);
+        String normalized = normalizeEmail(email);
+        List<Client> cached = emailCache.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = emailCache.generation();
+        List<Client> clients = clientRepository.findByEmail(normalized);
+        emailCache.put(normalized, clients, generation);
+        return clients;
+    }
+
+    public List<Client> suggestClients(String prefix, int limit) {
+        return prefixIndex.suggest(prefix, limit);
+    }
+
+    // The subset of ids that belong to a stored client, in one query
+    public List<String> getExistingIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return clientRepository.findByIdIn(ids).stream().map(Client::getId).toList();
+    }
+
+    // The stored clients among the ids, in one query; unknown ids are left out
+    public List<Client> getClientsByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return clientRepository.findAllById(ids);
+    }
+
+    // Emails are stored trimmed and lowercased so the unique index is effectively case-insensitive
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,97 @@
+package fact.it.clientservice;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import fact.it.clientservice.config.ClientEmailIndexMigration;
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientEmailCache;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClientEmailIndexMigrationTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private AggregateIterable<Document> aggregate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private ClientEmailCache emailCache;
+
+    private ClientEmailIndexMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.getCollectionName(Client.class)).thenReturn("clients");
+        when(mongoTemplate.getCollection("clients")).thenReturn(collection);
+        when(collection.aggregate(anyList())).thenReturn(aggregate);
+        when(aggregate.allowDiskUse(true)).thenReturn(aggregate);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Client.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.indexOps(Client.class)).thenReturn(indexOperations);
+        emailCache = spy(new ClientEmailCache(100));
+        migration = new ClientEmailIndexMigration(mongoTemplate, emailCache);
+    }
+
+    private void duplicates(List<Document> groups) {
+        when(aggregate.into(anyList())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(groups);
+            return target;
+        });
+    }
+
+    @Test
+    void testLegacyEmailsAreNormalizedBeforeTheIndexIsBuilt() {
+        duplicates(List.of());
+        when(mongoTemplate.stream(any(Query.class), eq(Client.class))).thenReturn(Stream.of(
+                new Client("1", "John Doe", "John@Example.com ", null, null)));
+
+        migration.run(null);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(any(Query.class), update.capture());
+        assertEquals("john@example.com", update.getValue().getUpdateObject().get("$set", Document.class).get("email"));
+        verify(bulkOperations).execute();
+        verify(emailCache).evict("john@example.com");
+        verify(indexOperations).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void testDuplicatesAreLeftAloneAndBlockTheIndex() {
+        duplicates(List.of(new Document("_id", "jane@example.com").append("count", 2).append("ids", List.of("2", "3"))));
+        when(mongoTemplate.stream(any(Query.class), eq(Client.class))).thenReturn(Stream.of(
+                new Client("2", "Jane", "Jane@example.com", null, null),
+                new Client("4", "Bob", "BOB@example.com", null, null)));
+
+        migration.run(null);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations).updateOne(query.capture(), any(Update.class));
+        assertEquals("4", query.getValue().getQueryObject().get("_id"));
+        verify(indexOperations, never()).ensureIndex(any(IndexDefinition.class));
+    }
+}
@@ -0,0 +1,129 @@
+package fact.it.clientservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import fact.it.clientservice.dto.ClientImportResultDTO;
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientImportService;
+import fact.it.clientservice.service.ClientPrefixIndex;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClientImportServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    @Spy
+    private ClientEmailCache emailCache = new ClientEmailCache(100);
+
+    @Spy
+    private ClientPrefixIndex prefixIndex = new ClientPrefixIndex();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ClientImportService clientImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Client.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getUpserts()).thenReturn(List.of(new BulkWriteUpsert(0, new BsonString("1"))));
+    }
+
+    @Test
+    void testImportNdjsonDeduplicatesByEmail() throws Exception {
+        String body = """
+                {"name":"John Doe","email":"john@example.com","phone":"1234567890"}
+                {"name":"John D.","email":"JOHN@example.com "}
+                {"name":"No Email"}
+                not json
+                {"name":"Jane Doe","email":"jane@example.com","crmId":42}
+                """;
+        ClientImportResultDTO result = clientImportService.importClients(stream(body), ClientImportService.NDJSON);
+
+        assertEquals(5, result.getReceived());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(2, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(4, result.getErrors().get(1).getRow());
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(1, prefixIndex.suggest("john", 10).size());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Client.class));
+    }
+
+    @Test
+    void testRejectedWriteIsReportedAgainstItsRow() throws Exception {
+        BulkWriteResult partial = BulkWriteResult.acknowledged(0, 0, 0, 0,
+                List.of(new BulkWriteUpsert(0, new BsonString("1"))), List.of());
+        BulkWriteError duplicateKey = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(partial, List.of(duplicateKey), null, new ServerAddress(), Set.of())));
+        String body = """
+                {"name":"John Doe","email":"john@example.com"}
+
+                {"name":"Jane Doe","email":"jane@example.com"}
+                """;
+        ClientImportResultDTO result = clientImportService.importClients(stream(body), ClientImportService.NDJSON);
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(1, prefixIndex.suggest("john", 10).size());
+        assertTrue(prefixIndex.suggest("jane", 10).isEmpty());
+    }
+
+    @Test
+    void testImportCsvWithQuotedFields() throws Exception {
+        String body = """
+                Name,Email,Phone,Address
+                "Doe, John",john@example.com,1234567890,"123 Main St"
+                Jane Doe,jane@example.com,,"1 ""Side"" St
+                Apt 2"
+                Bob,,555,
+                """;
+        ClientImportResultDTO result = clientImportService.importClients(stream(body), "text/csv; charset=UTF-8");
+
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getFailed());
+        assertEquals(5, result.getErrors().get(0).getRow());
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package fact.it.clientservice;
+
+import fact.it.clientservice.grpc.ClientLookupService;
+import fact.it.clientservice.model.Client;
+import fact.it.clientservice.service.ClientService;
+import fact.it.grpc.ClientLookupGrpc;
+import fact.it.grpc.LookupProto;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClientLookupServiceTest {
+    @Mock
+    private ClientService clientService;
+
+    @InjectMocks
+    private ClientLookupService clientLookupService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private ClientLookupGrpc.ClientLookupBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        server = NettyServerBuilder.forPort(0).directExecutor().addService(clientLookupService).build().start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        stub = ClientLookupGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testGetClientMirrorsTheEntity() {
+        when(clientService.getClientById("1")).thenReturn(new Client("1", "John Doe", "john@example.com", null, "123 Main St"));
+        LookupProto.Client client = stub.getClient(LookupProto.Id.newBuilder().setId("1").build());
+        assertEquals("1", client.getId());
+        assertEquals("John Doe", client.getName());
+        assertEquals("john@example.com", client.getEmail());
+        assertFalse(client.hasPhone());
+        assertEquals("123 Main St", client.getAddress());
+    }
+
+    @Test
+    void testGetUnknownClientIsNotFound() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.getClient(LookupProto.Id.newBuilder().setId("missing").build()));
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void testBatchedGetAndExistenceCheck() {
+        when(clientService.getClientsByIds(List.of("1", "2", "3"))).thenReturn(List.of(
+                new Client("1", "John Doe", null, null, null), new Client("3", "Jane Doe", null, null, null)));
+        when(clientService.getExistingIds(List.of("1", "2", "3"))).thenReturn(List.of("1", "3"));
+        LookupProto.Ids ids = LookupProto.Ids.newBuilder().addAllIds(List.of("1", "2", "3")).build();
+        assertEquals(List.of("1", "3"), stub.getClients(ids).getClientsList().stream().map(LookupProto.Client::getId).toList());
+        assertEquals(List.of("1", "3"), stub.existingClients(ids).getIdsList());
+    }
+}
@@ -2,15 +2,19 @@ package fact.it.clientservice;
 
 import fact.it.clientservice.model.Client;
 import fact.it.clientservice.repository.ClientRepository;
+import fact.it.clientservice.service.ClientEmailCache;
+import fact.it.clientservice.service.ClientPrefixIndex;
 import fact.it.clientservice.service.ClientService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -18,6 +22,12 @@ class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Spy
+    private ClientEmailCache emailCache = new ClientEmailCache(100);
+
+    @Spy
+    private ClientPrefixIndex prefixIndex = new ClientPrefixIndex();
+
     @InjectMocks
     private ClientService clientService;
 
@@ -82,4 +92,94 @@ class ClientServiceTest {
         assertEquals(1, clients.size());
         assertEquals("john@example.com", clients.get(0).getEmail());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testGetClientsByEmailIsCachedAndNormalized() {
+        when(clientRepository.findByEmail("john@example.com")).thenReturn(Arrays.asList(client));
+        clientService.getClientsByEmail(" John@Example.com");
+        List<Client> clients = clientService.getClientsByEmail("john@example.com");
+        assertEquals(1, clients.size());
+        verify(clientRepository, times(1)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void testUpdateClientEvictsCachedEmail() {
+        when(clientRepository.findByEmail("john@example.com")).thenReturn(Arrays.asList(client));
+        clientService.getClientsByEmail("john@example.com");
+        Client updated = new Client("1", "John Doe", "JOHN.DOE@example.com", "1234567890", "123 Main St");
+        when(clientRepository.findById("1")).thenReturn(Optional.of(client));
+        when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Client result = clientService.updateClient("1", updated);
+        assertEquals("john.doe@example.com", result.getEmail());
+        clientService.getClientsByEmail("john@example.com");
+        verify(clientRepository, times(2)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void testSaveOverAnExistingIdEvictsItsOldEmail() {
+        when(clientRepository.findByEmail("john@example.com")).thenReturn(Arrays.asList(client));
+        clientService.getClientsByEmail("john@example.com");
+        Client replacement = new Client("1", "John Doe", "johnny@example.com", "1234567890", "123 Main St");
+        when(clientRepository.findById("1")).thenReturn(Optional.of(client));
+        when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        clientService.saveClient(replacement);
+
+        when(clientRepository.findByEmail("john@example.com")).thenReturn(List.of());
+        assertTrue(clientService.getClientsByEmail("john@example.com").isEmpty());
+    }
+
+    @Test
+    void testCachedClientsCannotBeChangedByCallers() {
+        when(clientRepository.findByEmail("john@example.com")).thenReturn(Arrays.asList(client));
+        clientService.getClientsByEmail("john@example.com").get(0).setName("Changed");
+        client.setName("Changed too");
+
+        assertEquals("John Doe", clientService.getClientsByEmail("john@example.com").get(0).getName());
+    }
+
+    @Test
+    void testSuggestClientsByNamePhoneAndEmailPrefix() {
+        when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        clientService.saveClient(client);
+        clientService.saveClient(new Client("2", "Jane Smith", "jane@example.com", "+32 470 12 34 56", "1 Side St"));
+
+        assertEquals("1", clientService.suggestClients("joh", 10).get(0).getId());
+        assertEquals("2", clientService.suggestClients("smi", 10).get(0).getId());
+        assertEquals("2", clientService.suggestClients("+32 470", 10).get(0).getId());
+        assertEquals(2, clientService.suggestClients("j", 10).size());
+        assertEquals(1, clientService.suggestClients("j", 1).size());
+        assertTrue(clientService.suggestClients("x", 10).isEmpty());
+    }
+
+    @Test
+    void testSuggestIndexFollowsUpdatesAndDeletes() {
+        when(clientRepository.save(any(Client.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        clientService.saveClient(client);
+        when(clientRepository.findById("1")).thenReturn(Optional.of(client));
+        clientService.updateClient("1", new Client("1", "Jack Black", "jack@example.com", "111", "123 Main St"));
+        assertTrue(clientService.suggestClients("john", 10).isEmpty());
+        assertEquals(1, clientService.suggestClients("black", 10).size());
+
+        clientService.deleteClient("1");
+        assertTrue(clientService.suggestClients("black", 10).isEmpty());
+    }
+
+    @Test
+    void testRebuildKeepsWritesMadeWhileLoading() {
+        Client jane = new Client("2", "Jane Smith", "jane@example.com", "111", "1 Side St");
+        // While the stored rows load, client 1 is renamed and client 2 is deleted
+        Stream<Client> stored = Stream.of(client, jane).peek(row -> {
+            if (row == client) {
+                prefixIndex.put(new Client("1", "Jack Black", "jack@example.com", "111", "123 Main St"));
+                prefixIndex.remove("2");
+            }
+        });
+        when(clientRepository.streamAllBy()).thenReturn(stored);
+
+        clientService.rebuildPrefixIndex();
+
+        assertTrue(clientService.suggestClients("john", 10).isEmpty());
+        assertEquals(1, clientService.suggestClients("black", 10).size());
+        assertTrue(clientService.suggestClients("smi", 10).isEmpty());
+    }
+}
@@ -0,0 +1,27 @@
+package fact.it.common.batch;
+
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+// Bulk id checks against another service's POST endpoints that answer with the subset of the
+// posted ids they know about (/existing, /archived), one call per batch.
+public final class BulkLookup {
+
+    private BulkLookup() {
+    }
+
+    // Ids from the request that the service reports back. Throws if the service can't answer,
+    // so an outage never turns into a batch of wrong decisions.
+    public static <I> Set<I> found(RestTemplate restTemplate, String url, Set<I> ids, Class<I[]> responseType) {
+        Set<I> found = new HashSet<>();
+        if (!ids.isEmpty()) {
+            found.addAll(Arrays.asList(Objects.requireNonNull(
+                    restTemplate.postForObject(url, ids, responseType), "Empty response from " + url)));
+        }
+        return found;
+    }
+}
@@ -0,0 +1,87 @@
+package fact.it.common.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Background check for records that point at something another service no longer has. Walks the
+// collection in id order, one batch at a time; the subclass checks each batch's references with
+// one bulk lookup per owning service (see BulkLookup) and records the orphans it finds, either
+// only flagging them ("flag") or also removing them from the live collection ("archive"). A
+// failed lookup ends the run without flagging anything in that batch.
+public abstract class IntegritySweeper<T> extends PacedBatchJob {
+
+    private final int batchSize;
+    private final boolean archive;
+
+    private final AtomicLong progress = new AtomicLong();
+    private final AtomicLong lastOrphans = new AtomicLong();
+    private final Counter scanned;
+
+    protected IntegritySweeper(String entity, MeterRegistry meterRegistry, int batchSize,
+                               double maxRecordsPerSecond, String action) {
+        super("integrity.sweep", entity, meterRegistry, maxRecordsPerSecond);
+        if (!"flag".equals(action) && !"archive".equals(action)) {
+            throw new IllegalArgumentException("integrity.sweep.action must be flag or archive, got: " + action);
+        }
+        this.batchSize = batchSize;
+        this.archive = "archive".equals(action);
+        this.scanned = Counter.builder("integrity.sweep.records").tag("entity", entity).register(meterRegistry);
+        Gauge.builder("integrity.sweep.progress", progress, AtomicLong::get).tag("entity", entity)
+                .description("Records checked so far in the current (or last) sweep").strongReference(true).register(meterRegistry);
+        Gauge.builder("integrity.sweep.last.orphans", lastOrphans, AtomicLong::get).tag("entity", entity)
+                .description("Orphans found by the last completed sweep").strongReference(true).register(meterRegistry);
+    }
+
+    // The next batch in id order: the first one when lastId is null
+    protected abstract List<T> batchAfter(String lastId, int batchSize);
+
+    protected abstract String idOf(T record);
+
+    // Records the orphans of one batch and returns how many it found
+    protected abstract int checkBatch(List<T> batch);
+
+    protected boolean isArchive() {
+        return archive;
+    }
+
+    protected void orphanFound(String reason) {
+        meterRegistry.counter("integrity.sweep.orphans", "entity", entity, "reason", reason).increment();
+    }
+
+    @Override
+    protected long run() {
+        progress.set(0);
+        long orphans = 0;
+        String lastId = null;
+        while (true) {
+            long batchStart = System.nanoTime();
+            List<T> batch = batchAfter(lastId, batchSize);
+            if (batch.isEmpty()) {
+                return orphans;
+            }
+            orphans += checkBatch(batch);
+            scanned.increment(batch.size());
+            progress.addAndGet(batch.size());
+            lastId = idOf(batch.get(batch.size() - 1));
+            if (batch.size() < batchSize) {
+                return orphans;
+            }
+            pace(batch.size(), batchStart);
+        }
+    }
+
+    @Override
+    protected void completed(long orphans) {
+        lastOrphans.set(orphans);
+        log.info("Integrity sweep checked {} {} records, found {} orphans", progress.get(), entity, orphans);
+    }
+
+    @Override
+    protected void failed(RuntimeException e) {
+        log.warn("Integrity sweep stopped after {} {} records: {}", progress.get(), entity, e.toString());
+    }
+}
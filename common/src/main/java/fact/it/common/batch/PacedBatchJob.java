@@ -0,0 +1,77 @@
+package fact.it.common.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Skeleton of the scheduled background jobs that work through a collection one batch at a time.
+// Only one run is active per instance; each run is timed (<metric>.duration) and counted by
+// outcome (<metric>.runs), both tagged with the entity. Subclasses call pace() between batches
+// so the job stays under max-records-per-second and leaves the database to the requests.
+public abstract class PacedBatchJob {
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    protected final MeterRegistry meterRegistry;
+    protected final String entity;
+    private final String metric;
+    private final double maxRecordsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer duration;
+
+    protected PacedBatchJob(String metric, String entity, MeterRegistry meterRegistry, double maxRecordsPerSecond) {
+        this.metric = metric;
+        this.entity = entity;
+        this.meterRegistry = meterRegistry;
+        this.maxRecordsPerSecond = maxRecordsPerSecond;
+        this.duration = Timer.builder(metric + ".duration").tag("entity", entity).register(meterRegistry);
+    }
+
+    // Entry point for the subclass's @Scheduled method; does nothing while a run is in progress
+    protected final void runExclusively() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        String outcome = "completed";
+        try {
+            completed(run());
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            failed(e);
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter(metric + ".runs", "entity", entity, "outcome", outcome).increment();
+            running.set(false);
+        }
+    }
+
+    // One full run; the result is handed to completed()
+    protected abstract long run();
+
+    protected abstract void completed(long result);
+
+    protected abstract void failed(RuntimeException e);
+
+    // Sleeps off whatever is left of this batch's time budget at the configured rate
+    protected void pace(int records, long batchStart) {
+        if (maxRecordsPerSecond <= 0) {
+            return;
+        }
+        long budgetNanos = (long) (records * 1_000_000_000L / maxRecordsPerSecond);
+        long remaining = budgetNanos - (System.nanoTime() - batchStart);
+        if (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package fact.it.common.http;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.http.client.HttpClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.util.concurrent.Executors;
+
+// Outbound calls of the services go through the JDK HttpClient (spring.http.client.factory=jdk).
+// In virtual-thread mode its response handling runs on virtual threads too, instead of its own
+// platform thread pool.
+@AutoConfiguration(before = HttpClientAutoConfiguration.class)
+@ConditionalOnClass(ClientHttpRequestFactory.class)
+@ConditionalOnProperty(name = "spring.http.client.factory", havingValue = "jdk")
+public class JdkHttpClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ClientHttpRequestFactoryBuilder<?> clientHttpRequestFactoryBuilder() {
+        return ClientHttpRequestFactoryBuilder.jdk()
+                .withHttpClientCustomizer(builder -> builder.executor(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+}
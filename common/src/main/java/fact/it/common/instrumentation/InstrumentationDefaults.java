@@ -0,0 +1,36 @@
+package fact.it.common.instrumentation;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Metrics and tracing settings every module shares: Prometheus scraping, an application tag,
+// latency histograms for the server, client, gateway and repository timers, and Zipkin export.
+// Added as the lowest-precedence property source, so a module's own properties and the
+// environment still win. Only a fraction of the traces is sampled unless
+// TRACING_SAMPLING_PROBABILITY says otherwise; reporting every span costs each request.
+public class InstrumentationDefaults implements EnvironmentPostProcessor {
+
+    public static final String PROPERTY_SOURCE_NAME = "instrumentationDefaults";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getPropertySources().contains(PROPERTY_SOURCE_NAME)) {
+            return;
+        }
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        defaults.put("management.endpoints.web.exposure.include", "health,metrics,prometheus");
+        defaults.put("management.metrics.tags.application", "${spring.application.name}");
+        defaults.put("management.metrics.distribution.percentiles-histogram.http.server.requests", "true");
+        defaults.put("management.metrics.distribution.percentiles-histogram.http.client.requests", "true");
+        defaults.put("management.metrics.distribution.percentiles-histogram.spring.cloud.gateway.requests", "true");
+        defaults.put("management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations", "true");
+        defaults.put("management.tracing.sampling.probability", "${TRACING_SAMPLING_PROBABILITY:0.1}");
+        defaults.put("management.zipkin.tracing.endpoint", "${ZIPKIN_URL:http://zipkin:9411/api/v2/spans}");
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, defaults));
+    }
+}
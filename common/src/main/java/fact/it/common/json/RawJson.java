@@ -0,0 +1,29 @@
+package fact.it.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+// A JSON document from a downstream service, embedded in a response exactly as received. It is
+// written with writeRawValue, so it is never parsed into a Map tree and serialized back.
+public record RawJson(String json) implements JsonSerializable {
+
+    // Null for a missing or empty body, so an absent downstream entity still serializes as null
+    public static RawJson of(String json) {
+        return json == null || json.isBlank() ? null : new RawJson(json);
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, serializers);
+    }
+}
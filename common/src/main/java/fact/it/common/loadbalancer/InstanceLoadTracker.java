@@ -0,0 +1,180 @@
+package fact.it.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-instance load statistics fed by the load balancer lifecycle callbacks: requests in flight,
+// an EWMA of response latency, and consecutive failures. An instance that fails
+// ejection-threshold times in a row is ejected for ejection-time, so traffic moves away from it
+// before the next active health check notices. The first call to an instance mostly measures
+// connection setup and warm-up, so it isn't a latency sample, and latency nobody has refreshed
+// for LATENCY_TTL is forgotten: an instance skipped for being slow is tried again later instead
+// of being judged on an old sample forever. A call that never completes (cancelled before the
+// client reported it) stops counting as in flight after ABANDONED_CALL, so it can't make its
+// instance look busy for good. Registered by LoadBalancingAutoConfiguration.
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final long LATENCY_TTL_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final long ABANDONED_CALL_NANOS = Duration.ofMinutes(1).toNanos();
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    // Lock-free so request threads (virtual ones included) never queue on a shared monitor
+    private final Map<RequestKey, Call> calls = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+    private final int ejectionThreshold;
+    private final long ejectionNanos;
+
+    public InstanceLoadTracker(int ejectionThreshold, Duration ejectionTime) {
+        this.ejectionThreshold = ejectionThreshold;
+        this.ejectionNanos = ejectionTime.toNanos();
+    }
+
+    public static class InstanceStats {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean warmedUp;
+        private volatile double latencyEwmaNanos;
+        private volatile long latencyUpdatedNanos;
+        private volatile long ejectedUntilNanos;
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        // 0 while unknown: before the second call, or when the last sample is older than LATENCY_TTL
+        public double getLatencyEwmaNanos(long nowNanos) {
+            return nowNanos - latencyUpdatedNanos > LATENCY_TTL_NANOS ? 0 : latencyEwmaNanos;
+        }
+
+        public boolean isEjected(long nowNanos) {
+            return ejectedUntilNanos - nowNanos > 0;
+        }
+    }
+
+    public InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            long now = System.nanoTime();
+            InstanceStats instanceStats = statsFor(lbResponse.getServer());
+            instanceStats.outstanding.incrementAndGet();
+            calls.put(new RequestKey(request), new Call(instanceStats, now));
+            long lastSweep = lastSweepNanos.get();
+            if (now - lastSweep > SWEEP_INTERVAL_NANOS && lastSweepNanos.compareAndSet(lastSweep, now)) {
+                forgetAbandonedCalls(now);
+            }
+        }
+    }
+
+    // Drops calls started more than ABANDONED_CALL before now. If one completes after all, its
+    // onComplete finds nothing and changes nothing.
+    public void forgetAbandonedCalls(long nowNanos) {
+        calls.forEach((key, call) -> {
+            if (nowNanos - call.startNanos() > ABANDONED_CALL_NANOS && calls.remove(key, call)) {
+                call.stats().outstanding.decrementAndGet();
+            }
+        });
+    }
+
+    public int callsInFlight() {
+        return calls.size();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        Call call = calls.remove(new RequestKey(completionContext.getLoadBalancerRequest()));
+        if (call == null) {
+            return;
+        }
+        InstanceStats instanceStats = call.stats();
+        long start = call.startNanos();
+        instanceStats.outstanding.decrementAndGet();
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (instanceStats.warmedUp) {
+            double latency = now - start;
+            double previous = instanceStats.getLatencyEwmaNanos(now);
+            instanceStats.latencyEwmaNanos = previous == 0 ? latency : previous + EWMA_WEIGHT * (latency - previous);
+            instanceStats.latencyUpdatedNanos = now;
+        } else {
+            instanceStats.warmedUp = true;
+        }
+
+        if (isFailure(completionContext)) {
+            if (instanceStats.consecutiveFailures.incrementAndGet() >= ejectionThreshold) {
+                instanceStats.ejectedUntilNanos = now + ejectionNanos;
+                instanceStats.consecutiveFailures.set(0);
+            }
+        } else {
+            instanceStats.consecutiveFailures.set(0);
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        Object response = completionContext.getClientResponse();
+        try {
+            if (response instanceof ClientHttpResponse clientResponse) {
+                return clientResponse.getStatusCode().is5xxServerError();
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        if (response instanceof ResponseData responseData && responseData.getHttpStatus() != null) {
+            return responseData.getHttpStatus().is5xxServerError();
+        }
+        return false;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private record Call(InstanceStats stats, long startNanos) {
+    }
+
+    // Calls are matched by their load balancer request: it is the one object both callbacks get
+    // (BlockingLoadBalancerClient hands onComplete a different Response than onStartRequest).
+    // Requests compare by their context, so key them by identity.
+    private record RequestKey(Request<?> request) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RequestKey key && key.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package fact.it.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Picks the instance with the fewest requests in flight; ties are broken round-robin, so idle
+// instances share traffic evenly. Instances whose latency EWMA is more than slowFactor times the
+// fastest candidate's (and at least 10ms slower) are skipped while a faster one is available, and
+// ejected instances are skipped unless every instance is ejected.
+public class LeastLoadedLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final double SLOW_FACTOR = 3.0;
+    private static final long SLOW_MIN_GAP_NANOS = 10_000_000L;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final InstanceLoadTracker tracker;
+    private final AtomicInteger position = new AtomicInteger();
+
+    public LeastLoadedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+                                   InstanceLoadTracker tracker) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.tracker = tracker;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable();
+        if (supplier == null) {
+            return Mono.just(new EmptyResponse());
+        }
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        long now = System.nanoTime();
+        boolean allEjected = instances.stream().allMatch(instance -> tracker.statsFor(instance).isEjected(now));
+        double fastest = instances.stream()
+                .map(tracker::statsFor)
+                .filter(stats -> allEjected || !stats.isEjected(now))
+                .mapToDouble(stats -> stats.getLatencyEwmaNanos(now))
+                .filter(latency -> latency > 0)
+                .min()
+                .orElse(0);
+
+        int start = Math.floorMod(position.getAndIncrement(), instances.size());
+        ServiceInstance best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        boolean bestSlow = true;
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance candidate = instances.get((start + i) % instances.size());
+            InstanceLoadTracker.InstanceStats stats = tracker.statsFor(candidate);
+            if (!allEjected && stats.isEjected(now)) {
+                continue;
+            }
+            double latency = stats.getLatencyEwmaNanos(now);
+            boolean slow = fastest > 0 && latency > fastest * SLOW_FACTOR && latency - fastest > SLOW_MIN_GAP_NANOS;
+            int outstanding = stats.getOutstanding();
+            if (best == null || (bestSlow && !slow) || (slow == bestSlow && outstanding < bestOutstanding)) {
+                best = candidate;
+                bestOutstanding = outstanding;
+                bestSlow = slow;
+            }
+        }
+        return new DefaultResponse(best);
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+}
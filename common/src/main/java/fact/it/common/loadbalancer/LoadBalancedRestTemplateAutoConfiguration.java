@@ -0,0 +1,27 @@
+package fact.it.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.client.RestTemplate;
+
+// The RestTemplate the services call each other with. Service ids in URLs are resolved by the
+// client-side load balancer; it is built from RestTemplateBuilder so calls are timed
+// (http.client.requests) and carry trace context.
+@AutoConfiguration(after = RestTemplateAutoConfiguration.class)
+@ConditionalOnClass({RestTemplate.class, LoadBalanced.class})
+@ConditionalOnBean(RestTemplateBuilder.class)
+public class LoadBalancedRestTemplateAutoConfiguration {
+
+    @Bean
+    @LoadBalanced
+    @ConditionalOnMissingBean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
+    }
+}
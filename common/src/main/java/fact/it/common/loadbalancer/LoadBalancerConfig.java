@@ -0,0 +1,35 @@
+package fact.it.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+// Per-service load balancer setup for servlet applications, instantiated in each service's child
+// context by @LoadBalancerClients (see LoadBalancingAutoConfiguration). Deliberately not a
+// @Configuration so component scanning doesn't pick it up.
+public class LoadBalancerConfig {
+
+    // Static instances from spring.cloud.discovery.client.simple.instances, filtered by active health checks
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withBlockingDiscoveryClient()
+                .withBlockingHealthChecks(new RestTemplate())
+                .build(context);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> leastLoadedLoadBalancer(Environment environment,
+                                                                       LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                       InstanceLoadTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastLoadedLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, tracker);
+    }
+}
@@ -0,0 +1,54 @@
+package fact.it.common.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Least-loaded load balancing with passive ejection for every @LoadBalanced client of the
+// application: blocking discovery and health checks for servlet (and non-web) applications,
+// reactive ones for the gateway. Ejection is tuned with loadbalancer.ejection-threshold and
+// loadbalancer.ejection-time.
+@AutoConfiguration
+@ConditionalOnClass(LoadBalancerClientFactory.class)
+public class LoadBalancingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InstanceLoadTracker instanceLoadTracker(@Value("${loadbalancer.ejection-threshold:3}") int ejectionThreshold,
+                                                   @Value("${loadbalancer.ejection-time:30s}") Duration ejectionTime) {
+        return new InstanceLoadTracker(ejectionThreshold, ejectionTime);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @Conditional(NotReactiveCondition.class)
+    @LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.class)
+    static class BlockingLoadBalancing {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @LoadBalancerClients(defaultConfiguration = ReactiveLoadBalancerConfig.class)
+    static class ReactiveLoadBalancing {
+    }
+
+    static class NotReactiveCondition extends NoneNestedConditions {
+
+        NotReactiveCondition() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+        static class Reactive {
+        }
+    }
+}
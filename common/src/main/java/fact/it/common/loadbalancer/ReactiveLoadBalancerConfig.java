@@ -0,0 +1,19 @@
+package fact.it.common.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+// LoadBalancerConfig for reactive applications (the gateway): discovery and health checks go
+// through the non-blocking suppliers and WebClient instead of RestTemplate.
+public class ReactiveLoadBalancerConfig extends LoadBalancerConfig {
+
+    @Override
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withHealthChecks()
+                .build(context);
+    }
+}
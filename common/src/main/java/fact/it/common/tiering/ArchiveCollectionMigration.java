@@ -0,0 +1,48 @@
+package fact.it.common.tiering;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.CreateCollectionOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+// Creates an archive collection with a stronger block compressor than the live one (the archive
+// is written once and read rarely), after the indexes the tiering job's scan of the live
+// collection needs. A server that rejects the storage options still gets a plain collection.
+public abstract class ArchiveCollectionMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveCollectionMigration.class);
+
+    protected final MongoTemplate mongoTemplate;
+    private final String collection;
+    private final String compressor;
+
+    protected ArchiveCollectionMigration(MongoTemplate mongoTemplate, String collection, String compressor) {
+        this.mongoTemplate = mongoTemplate;
+        this.collection = collection;
+        this.compressor = compressor;
+    }
+
+    protected abstract void indexLiveCollection();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        indexLiveCollection();
+        if (mongoTemplate.collectionExists(collection)) {
+            return;
+        }
+        try {
+            mongoTemplate.getDb().createCollection(collection, new CreateCollectionOptions()
+                    .storageEngineOptions(new Document("wiredTiger",
+                            new Document("configString", "block_compressor=" + compressor))));
+        } catch (MongoException e) {
+            log.warn("Creating {} with block_compressor={} failed, using defaults: {}", collection, compressor, e.toString());
+            if (!mongoTemplate.collectionExists(collection)) {
+                mongoTemplate.createCollection(collection);
+            }
+        }
+    }
+}
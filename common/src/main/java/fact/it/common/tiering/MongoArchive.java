@@ -0,0 +1,84 @@
+package fact.it.common.tiering;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The cold tier of an entity: documents a tiering job moved out of the live collection, with the
+// same shape, in a separate (compressed) collection. Lookups by id count as
+// tiering.archive.reads{result=hit|miss}, so the share of reads that reach the archive shows up.
+public abstract class MongoArchive<T> {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Class<T> type;
+    private final String collection;
+    private final String entity;
+
+    protected MongoArchive(MongoTemplate mongoTemplate, MeterRegistry meterRegistry, Class<T> type,
+                           String collection, String entity) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.type = type;
+        this.collection = collection;
+        this.entity = entity;
+    }
+
+    protected abstract String idOf(T document);
+
+    public T findById(String id) {
+        T document = mongoTemplate.findById(id, type, collection);
+        meterRegistry.counter("tiering.archive.reads", "entity", entity, "result", document == null ? "miss" : "hit")
+                .increment();
+        return document;
+    }
+
+    public List<T> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<T> documents = mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), type, collection);
+        meterRegistry.counter("tiering.archive.reads", "entity", entity, "result", documents.isEmpty() ? "miss" : "hit")
+                .increment();
+        return documents;
+    }
+
+    // The subset of ids stored in the archive, in one query
+    public List<String> getExistingIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        return mongoTemplate.find(query, type, collection).stream().map(this::idOf).toList();
+    }
+
+    // Cursor over the archived documents matching the query; close it when done
+    public Stream<T> stream(Query query) {
+        return mongoTemplate.stream(query, type, collection);
+    }
+
+    // Upserts by id, so copying a batch again after an interrupted run is harmless
+    public void store(List<T> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type, collection);
+        for (T document : documents) {
+            bulk.replaceOne(Query.query(Criteria.where("id").is(idOf(document))), document,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    public void deleteById(String id) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(id)), type, collection);
+    }
+}
@@ -0,0 +1,59 @@
+package fact.it.common;
+
+import fact.it.common.http.JdkHttpClientAutoConfiguration;
+import fact.it.common.loadbalancer.LoadBalancedRestTemplateAutoConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.client.HttpClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.JdkClientHttpRequestFactoryBuilder;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientAutoConfigurationTest {
+    private static final AutoConfigurations CONFIGURATIONS = AutoConfigurations.of(JdkHttpClientAutoConfiguration.class,
+            HttpClientAutoConfiguration.class, RestTemplateAutoConfiguration.class,
+            LoadBalancedRestTemplateAutoConfiguration.class);
+
+    @Test
+    void testVirtualThreadModeUsesTheJdkClientAndServletAppsGetARestTemplate() {
+        new WebApplicationContextRunner().withConfiguration(CONFIGURATIONS)
+                .withPropertyValues("spring.http.client.factory=jdk", "spring.threads.virtual.enabled=true")
+                .run(context -> {
+                    ClientHttpRequestFactoryBuilder<?> builder = context.getBean(ClientHttpRequestFactoryBuilder.class);
+                    assertInstanceOf(JdkClientHttpRequestFactoryBuilder.class, builder);
+                    Executor executor = executorOf(builder).orElseThrow();
+                    assertTrue(CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join());
+                    assertNotNull(context.getBean(RestTemplate.class));
+                });
+    }
+
+    @Test
+    void testPlatformThreadModeKeepsTheClientsOwnExecutor() {
+        new WebApplicationContextRunner().withConfiguration(CONFIGURATIONS)
+                .withPropertyValues("spring.http.client.factory=jdk")
+                .run(context -> assertTrue(executorOf(context.getBean(ClientHttpRequestFactoryBuilder.class)).isEmpty()));
+    }
+
+    @Test
+    void testReactiveApplicationsGetNoRestTemplate() {
+        new ReactiveWebApplicationContextRunner().withConfiguration(CONFIGURATIONS)
+                .run(context -> assertTrue(context.getBeansOfType(RestTemplate.class).isEmpty()));
+    }
+
+    // The executor of the JDK HttpClient the builder creates; empty means its default pool
+    private static Optional<Executor> executorOf(ClientHttpRequestFactoryBuilder<?> builder) {
+        HttpClient httpClient = (HttpClient) ReflectionTestUtils.getField(builder.build(), "httpClient");
+        return httpClient.executor();
+    }
+}
@@ -0,0 +1,81 @@
+package fact.it.common;
+
+import fact.it.common.loadbalancer.InstanceLoadTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceLoadTrackerTest {
+
+    private final ServiceInstance instance = new DefaultServiceInstance("client-service-1", "client-service", "localhost", 8082, false);
+    private final InstanceLoadTracker tracker = new InstanceLoadTracker(3, Duration.ofSeconds(30));
+
+    // Like BlockingLoadBalancerClient: the same request, but a new Response for each callback
+    private void call(CompletionContext.Status status) {
+        Request<Object> request = new DefaultRequest<>();
+        tracker.onStartRequest(request, new DefaultResponse(instance));
+        assertEquals(1, tracker.statsFor(instance).getOutstanding());
+        tracker.onComplete(status == CompletionContext.Status.FAILED
+                ? new CompletionContext<>(status, new IOException("refused"), request, new DefaultResponse(instance))
+                : new CompletionContext<>(status, request, new DefaultResponse(instance)));
+    }
+
+    @Test
+    void testCompletedCallsAreNoLongerOutstanding() {
+        call(CompletionContext.Status.SUCCESS);
+        assertEquals(0, tracker.statsFor(instance).getOutstanding());
+        // The first call only warms the instance up
+        assertEquals(0, tracker.statsFor(instance).getLatencyEwmaNanos(System.nanoTime()));
+
+        call(CompletionContext.Status.SUCCESS);
+
+        assertEquals(0, tracker.statsFor(instance).getOutstanding());
+        assertTrue(tracker.statsFor(instance).getLatencyEwmaNanos(System.nanoTime()) > 0);
+    }
+
+    @Test
+    void testOldLatencyIsForgotten() {
+        call(CompletionContext.Status.SUCCESS);
+        call(CompletionContext.Status.SUCCESS);
+
+        long later = System.nanoTime() + Duration.ofSeconds(11).toNanos();
+        assertEquals(0, tracker.statsFor(instance).getLatencyEwmaNanos(later));
+    }
+
+    @Test
+    void testConsecutiveFailuresEjectTheInstance() {
+        call(CompletionContext.Status.FAILED);
+        call(CompletionContext.Status.FAILED);
+        assertFalse(tracker.statsFor(instance).isEjected(System.nanoTime()));
+
+        call(CompletionContext.Status.FAILED);
+
+        assertTrue(tracker.statsFor(instance).isEjected(System.nanoTime()));
+        assertEquals(0, tracker.statsFor(instance).getOutstanding());
+    }
+
+    @Test
+    void testCallsThatNeverCompleteStopCountingAsInFlight() {
+        Request<Object> cancelled = new DefaultRequest<>();
+        tracker.onStartRequest(cancelled, new DefaultResponse(instance));
+        tracker.forgetAbandonedCalls(System.nanoTime());
+        assertEquals(1, tracker.statsFor(instance).getOutstanding());
+
+        tracker.forgetAbandonedCalls(System.nanoTime() + Duration.ofMinutes(2).toNanos());
+        assertEquals(0, tracker.statsFor(instance).getOutstanding());
+        assertEquals(0, tracker.callsInFlight());
+
+        // A late completion changes nothing
+        tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, cancelled, new DefaultResponse(instance)));
+        assertEquals(0, tracker.statsFor(instance).getOutstanding());
+    }
+}
@@ -0,0 +1,42 @@
+package fact.it.common;
+
+import fact.it.common.instrumentation.InstrumentationDefaults;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InstrumentationDefaultsTest {
+
+    private final InstrumentationDefaults defaults = new InstrumentationDefaults();
+
+    @Test
+    void samplesTenPercentOfTracesUnlessTheEnvironmentOverridesIt() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("application",
+                Map.of("spring.application.name", "client-service")));
+        defaults.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("0.1", environment.getProperty("management.tracing.sampling.probability"));
+        assertEquals("client-service", environment.getProperty("management.metrics.tags.application"));
+        assertEquals("health,metrics,prometheus", environment.getProperty("management.endpoints.web.exposure.include"));
+
+        environment.getPropertySources().addFirst(new MapPropertySource("env",
+                Map.of("TRACING_SAMPLING_PROBABILITY", "1.0")));
+        assertEquals("1.0", environment.getProperty("management.tracing.sampling.probability"));
+    }
+
+    @Test
+    void applicationPropertiesWinOverTheDefaults() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("application",
+                Map.of("management.endpoints.web.exposure.include", "health")));
+        defaults.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("health", environment.getProperty("management.endpoints.web.exposure.include"));
+    }
+}
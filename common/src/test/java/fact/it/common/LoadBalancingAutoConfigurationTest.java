@@ -0,0 +1,49 @@
+package fact.it.common;
+
+import fact.it.common.loadbalancer.InstanceLoadTracker;
+import fact.it.common.loadbalancer.LoadBalancerConfig;
+import fact.it.common.loadbalancer.LoadBalancingAutoConfiguration;
+import fact.it.common.loadbalancer.ReactiveLoadBalancerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancingAutoConfigurationTest {
+    private static final AutoConfigurations CONFIGURATIONS = AutoConfigurations.of(LoadBalancingAutoConfiguration.class);
+
+    // What SpringApplication sets up, so "30s" binds to a Duration
+    private static void bootConversions(ConfigurableApplicationContext context) {
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+    }
+
+    private static List<Class<?>> defaultConfigurations(ApplicationContext context) {
+        return context.getBeansOfType(LoadBalancerClientSpecification.class).values().stream()
+                .flatMap(specification -> Arrays.stream(specification.getConfiguration()))
+                .toList();
+    }
+
+    @Test
+    void testServletAndNonWebApplicationsUseBlockingSuppliers() {
+        new WebApplicationContextRunner().withInitializer(LoadBalancingAutoConfigurationTest::bootConversions).withConfiguration(CONFIGURATIONS).run(context -> {
+            assertEquals(List.of(LoadBalancerConfig.class), defaultConfigurations(context));
+            assertNotNull(context.getBean(InstanceLoadTracker.class));
+        });
+        new ApplicationContextRunner().withInitializer(LoadBalancingAutoConfigurationTest::bootConversions).withConfiguration(CONFIGURATIONS).run(context ->
+                assertEquals(List.of(LoadBalancerConfig.class), defaultConfigurations(context)));
+    }
+
+    @Test
+    void testReactiveApplicationsUseReactiveSuppliers() {
+        new ReactiveWebApplicationContextRunner().withInitializer(LoadBalancingAutoConfigurationTest::bootConversions).withConfiguration(CONFIGURATIONS).run(context ->
+                assertEquals(List.of(ReactiveLoadBalancerConfig.class), defaultConfigurations(context)));
+    }
+}
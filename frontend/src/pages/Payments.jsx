@@ -52,9 +52,10 @@ export default function Payments() {
     }
   };
 
+  // Payment, reservation, client and motorbike in one gateway round-trip
   const handleShowDetails = async (id) => {
     try {
-      const res = await api.get(`/payments/${id}/details`);
+      const res = await api.get(`/bff/payments/${id}`);
       setDetails(res.data);
       setDetailsOpen(true);
     } catch {
@@ -205,26 +206,26 @@ export default function Payments() {
                 {details ? (
                   <div>
                     <h6>Payment</h6>
-                    <p>Amount: {details.amount}</p>
-                    <p>Status: {details.status}</p>
-                    <p>Payment Date: {details.paymentDate}</p>
+                    <p>Amount: {details.payment?.amount}</p>
+                    <p>Status: {details.payment?.status}</p>
+                    <p>Payment Date: {details.payment?.paymentDate}</p>
                     <hr />
                     <h6>Reservation</h6>
-                    <p>Reservation Date: {details.reservationDetails?.reservationDate}</p>
-                    <p>Start Date: {details.reservationDetails?.startDate}</p>
-                    <p>End Date: {details.reservationDetails?.endDate}</p>
+                    <p>Reservation Date: {details.reservation?.reservationDate}</p>
+                    <p>Start Date: {details.reservation?.startDate}</p>
+                    <p>End Date: {details.reservation?.endDate}</p>
                     <hr />
                     <h6>Client</h6>
-                    <p>Name: {details.reservationDetails?.client?.name}</p>
-                    <p>Email: {details.reservationDetails?.client?.email}</p>
-                    <p>Phone: {details.reservationDetails?.client?.phone}</p>
-                    <p>Address: {details.reservationDetails?.client?.address}</p>
+                    <p>Name: {details.client?.name}</p>
+                    <p>Email: {details.client?.email}</p>
+                    <p>Phone: {details.client?.phone}</p>
+                    <p>Address: {details.client?.address}</p>
                     <hr />
                     <h6>Motorbike</h6>
-                    <p>Make: {details.reservationDetails?.motorbike?.make}</p>
-                    <p>Model: {details.reservationDetails?.motorbike?.model}</p>
-                    <p>Year: {details.reservationDetails?.motorbike?.year}</p>
-                    <p>Price: {details.reservationDetails?.motorbike?.price}</p>
+                    <p>Make: {details.motorbike?.make}</p>
+                    <p>Model: {details.motorbike?.model}</p>
+                    <p>Year: {details.motorbike?.year}</p>
+                    <p>Price: {details.motorbike?.price}</p>
                   </div>
                 ) : (
                   <div>Loading...</div>
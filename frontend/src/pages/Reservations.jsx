@@ -28,10 +28,23 @@ export default function Reservations() {
     setLoading(false);
   };
 
+  // Reservations, clients and motorbikes in one gateway round-trip
+  const fetchPage = async () => {
+    setLoading(true);
+    try {
+      const res = await api.get('/bff/reservations');
+      setReservations(res.data.reservations || []);
+      setClients(res.data.clients || []);
+      setMotorbikes(res.data.motorbikes || []);
+      setError(res.data.reservations ? '' : 'Failed to fetch reservations');
+    } catch (err) {
+      setError('Failed to fetch reservations');
+    }
+    setLoading(false);
+  };
+
   useEffect(() => {
-    fetchReservations();
-    api.get('/clients').then(res => setClients(res.data)).catch(() => setClients([]));
-    api.get('/motorbikes').then(res => setMotorbikes(res.data)).catch(() => setMotorbikes([]));
+    fetchPage();
     fetch('http://localhost:8080/user', { credentials: 'include' })
       .then(res => res.ok ? res.json() : null)
       .then(data => {
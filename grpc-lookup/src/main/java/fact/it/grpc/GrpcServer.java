@@ -0,0 +1,81 @@
+package fact.it.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingServerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Serves the application's lookup services (src/main/proto/lookup.proto) over HTTP/2 on its own
+// port, next to the public REST API. Calls run on virtual threads when the servlet requests do.
+// Registered by GrpcServerAutoConfiguration.
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final List<BindableService> services;
+    private final MeterRegistry meterRegistry;
+    private final int port;
+    private final boolean virtualThreads;
+    private Server server;
+    private ExecutorService executor;
+
+    public GrpcServer(List<BindableService> services, MeterRegistry meterRegistry, int port, boolean virtualThreads) {
+        this.services = services;
+        this.meterRegistry = meterRegistry;
+        this.port = port;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+                .intercept(new MetricCollectingServerInterceptor(meterRegistry));
+        services.forEach(builder::addService);
+        if (virtualThreads) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(executor);
+        }
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        log.info("gRPC lookup API listening on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(5, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null && !server.isShutdown();
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+}
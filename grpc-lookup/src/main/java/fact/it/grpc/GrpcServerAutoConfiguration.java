@@ -0,0 +1,28 @@
+package fact.it.grpc;
+
+import io.grpc.BindableService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+// Starts the gRPC server in the applications that implement one of the lookup services, on
+// grpc.server.port. Turned off with grpc.server.enabled=false.
+@AutoConfiguration
+@ConditionalOnBean(BindableService.class)
+@ConditionalOnProperty(name = "grpc.server.enabled", matchIfMissing = true)
+public class GrpcServerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GrpcServer grpcServer(List<BindableService> services, MeterRegistry meterRegistry,
+                                 @Value("${grpc.server.port:9090}") int port,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return new GrpcServer(services, meterRegistry, port, virtualThreads);
+    }
+}
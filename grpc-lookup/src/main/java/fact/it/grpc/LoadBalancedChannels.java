@@ -0,0 +1,76 @@
+package fact.it.grpc;
+
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingClientInterceptor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// gRPC calls to a service through the same load balancer as the @LoadBalanced RestTemplate: the
+// static instance list (spring.cloud.discovery.client.simple.instances), active health checks,
+// least-loaded selection and passive ejection all apply per call. Each instance advertises its
+// gRPC port with a grpc-port metadata entry; it gets one long-lived HTTP/2 channel that
+// multiplexes all concurrent calls to it.
+public class LoadBalancedChannels {
+
+    public static final String GRPC_PORT_METADATA = "grpc-port";
+
+    private final LoadBalancerClient loadBalancerClient;
+    private final MetricCollectingClientInterceptor metrics;
+    private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
+
+    public LoadBalancedChannels(LoadBalancerClient loadBalancerClient, MeterRegistry meterRegistry) {
+        this.loadBalancerClient = loadBalancerClient;
+        this.metrics = new MetricCollectingClientInterceptor(meterRegistry);
+    }
+
+    // A failed call (unavailable, deadline exceeded, ...) counts against the instance it went to
+    public <T> T call(String serviceId, Function<Channel, T> call) {
+        try {
+            return loadBalancerClient.execute(serviceId, instance -> call.apply(channel(instance)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // For lookups: NOT_FOUND is an answer from a healthy instance, so it is null rather than a failure
+    public <T> T find(String serviceId, Function<Channel, T> call) {
+        return call(serviceId, channel -> {
+            try {
+                return call.apply(channel);
+            } catch (StatusRuntimeException e) {
+                if (e.getStatus().getCode() == Status.Code.NOT_FOUND) {
+                    return null;
+                }
+                throw e;
+            }
+        });
+    }
+
+    private ManagedChannel channel(ServiceInstance instance) {
+        String port = instance.getMetadata().get(GRPC_PORT_METADATA);
+        if (port == null) {
+            throw new IllegalStateException("Instance " + instance.getUri() + " of " + instance.getServiceId()
+                    + " has no " + GRPC_PORT_METADATA + " metadata");
+        }
+        return channels.computeIfAbsent(instance.getHost() + ":" + port, key -> NettyChannelBuilder
+                .forAddress(instance.getHost(), Integer.parseInt(port))
+                .usePlaintext()
+                .intercept(metrics)
+                .build());
+    }
+
+    public void close() {
+        channels.values().forEach(ManagedChannel::shutdown);
+    }
+}
@@ -0,0 +1,39 @@
+package fact.it.grpc;
+
+import io.grpc.BindableService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrpcServerAutoConfigurationTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(GrpcServerAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues("grpc.server.port=0");
+
+    @Test
+    void testApplicationsWithALookupServiceServeIt() {
+        runner.withBean(BindableService.class, () -> new ClientLookupGrpc.ClientLookupImplBase() {
+        }).run(context -> {
+            GrpcServer server = context.getBean(GrpcServer.class);
+            assertTrue(server.isRunning());
+            assertTrue(server.getPort() > 0);
+        });
+    }
+
+    @Test
+    void testApplicationsWithoutOneStartNoServer() {
+        runner.run(context -> assertTrue(context.getBeansOfType(GrpcServer.class).isEmpty()));
+    }
+
+    @Test
+    void testTheServerCanBeTurnedOff() {
+        runner.withBean(BindableService.class, () -> new ClientLookupGrpc.ClientLookupImplBase() {
+        }).withPropertyValues("grpc.server.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(GrpcServer.class).isEmpty()));
+    }
+}
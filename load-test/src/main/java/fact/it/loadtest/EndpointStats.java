@@ -0,0 +1,49 @@
+package fact.it.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Outcome counters and a latency histogram (microseconds) for one endpoint of the mix.
+// Latency is measured from the intended send time, so time spent queueing behind a saturated
+// system counts against it (no coordinated omission).
+public class EndpointStats {
+
+    public static final String TRANSPORT_ERROR = "transport-error";
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    public void record(long latencyNanos, int status) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        requests.increment();
+        if (status < 200 || status >= 400) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(status < 0 ? TRANSPORT_ERROR : String.valueOf(status), k -> new LongAdder()).increment();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Map<String, Long> outcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+
+    public Histogram latency() {
+        return latencyMicros;
+    }
+}
@@ -0,0 +1,59 @@
+package fact.it.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+// Stands in for Google as the token issuer: an RSA key generated per run, its public JWK set
+// written to a file for the gateway's gateway.jwt.jwk-set-file, and signed RS256 tokens.
+public class JwtIssuer {
+
+    public static final String ISSUER = "http://localhost/load-test-issuer";
+    public static final String AUDIENCE = "load-test";
+
+    private final RSAKey key;
+    private final Path jwkSetFile;
+
+    public JwtIssuer() throws JOSEException, IOException {
+        this.key = new RSAKeyGenerator(2048).keyID("load-test").generate();
+        this.jwkSetFile = Files.createTempFile("load-test-jwks", ".json");
+        this.jwkSetFile.toFile().deleteOnExit();
+        Files.writeString(jwkSetFile, new JWKSet(key.toPublicJWK()).toString());
+    }
+
+    public Path getJwkSetFile() {
+        return jwkSetFile;
+    }
+
+    public String token(String subject, Duration validity) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(subject)
+                .audience(AUDIENCE)
+                .claim("email", subject + "@load.test")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(validity)))
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+            jwt.sign(new RSASSASigner(key));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package fact.it.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Machine-readable summary of a run: per endpoint and in total, request count, throughput,
+// error rate, status code breakdown and latency percentiles in milliseconds.
+public final class LoadReport {
+
+    private LoadReport() {
+    }
+
+    public static Map<String, Object> build(LoadTestConfig config, Map<String, EndpointStats> stats, long dropped) {
+        double seconds = config.duration().toMillis() / 1000d;
+        Histogram total = new Histogram(3);
+        long totalRequests = 0;
+        long totalErrors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            Histogram latency = endpoint.latency().copy();
+            total.add(latency);
+            totalRequests += endpoint.requests();
+            totalErrors += endpoint.errors();
+            Map<String, Object> summary = summary(endpoint.requests(), endpoint.errors(), seconds, latency);
+            summary.put("outcomes", endpoint.outcomes());
+            endpoints.put(entry.getKey(), summary);
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", config.rate());
+        settings.put("arrival", config.poisson() ? "poisson" : "constant");
+        settings.put("warmupSeconds", config.warmup().toMillis() / 1000d);
+        settings.put("durationSeconds", seconds);
+        settings.put("users", config.users());
+        settings.put("maxInFlight", config.maxInFlight());
+        settings.put("mix", config.mix());
+        settings.put("virtualThreads", config.virtualThreads());
+        settings.put("internalTransport", config.internalTransport());
+
+        Map<String, Object> totals = summary(totalRequests, totalErrors, seconds, total);
+        totals.put("dropped", dropped);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", settings);
+        report.put("total", totals);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static Map<String, Object> summary(long requests, long errors, double seconds, Histogram latencyMicros) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", millis(latencyMicros.getValueAtPercentile(50)));
+        latency.put("p99", millis(latencyMicros.getValueAtPercentile(99)));
+        latency.put("p999", millis(latencyMicros.getValueAtPercentile(99.9)));
+        latency.put("max", millis(latencyMicros.getMaxValue()));
+        latency.put("mean", millis(latencyMicros.getMean()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("throughput", requests / seconds);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0 : (double) errors / requests);
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000d;
+    }
+
+    public static void write(Map<String, Object> report, Path path, ObjectMapper objectMapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static String table(Map<String, Object> report) {
+        StringBuilder table = new StringBuilder(String.format("%-22s %9s %10s %8s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms"));
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) report.get("endpoints"));
+        rows.put("TOTAL", report.get("total"));
+        rows.forEach((name, value) -> {
+            Map<String, Object> row = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) row.get("latencyMs");
+            table.append(String.format("%-22s %9d %10.1f %7.2f%% %9.2f %9.2f %9.2f%n", name,
+                    (Long) row.get("requests"), (Double) row.get("throughput"),
+                    ((Number) row.get("errorRate")).doubleValue() * 100,
+                    (Double) latency.get("p50"), (Double) latency.get("p99"), (Double) latency.get("p999")));
+        });
+        return table.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package fact.it.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Command-line settings, all given as --name=value:
+//   --rate=200                 arrivals per second (open model: independent of response times)
+//   --arrival=poisson          poisson (exponential gaps) or constant
+//   --warmup=10s --duration=60s
+//   --mix=motorbike-get:30,reservation-details:20,...   relative weights per endpoint
+//   --users=200                distinct JWT subjects, so per-user rate limits apply realistically
+//   --max-in-flight=5000       arrivals beyond this are counted as dropped instead of queued
+//   --clients=200 --motorbikes=50 --reservations=500 --payments=300   seed data
+//   --report=target/load-report.json
+//   --repo-dir=..              repository root holding the service modules
+//   --virtual-threads=true     run the servlet services on virtual threads (spring.threads.virtual.enabled)
+//   --internal-transport=rest  rest or grpc for the service-to-service lookups (internal.transport)
+public record LoadTestConfig(double rate, boolean poisson, Duration warmup, Duration duration,
+                             Map<String, Integer> mix, int users, int maxInFlight,
+                             int clients, int motorbikes, int reservations, int payments,
+                             Path report, Path repoDir, boolean virtualThreads,
+                             String internalTransport) {
+
+    public static final String DEFAULT_MIX = "motorbikes-list:10,motorbike-get:20,client-get:10,reservations-list:5,"
+            + "reservation-details:20,payment-details:10,bff-reservation:10,create-reservation:10,update-payment:5";
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                Double.parseDouble(options.getOrDefault("rate", "200")),
+                !"constant".equals(options.getOrDefault("arrival", "poisson")),
+                duration(options.getOrDefault("warmup", "10s")),
+                duration(options.getOrDefault("duration", "60s")),
+                mix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "5000")),
+                Integer.parseInt(options.getOrDefault("clients", "200")),
+                Integer.parseInt(options.getOrDefault("motorbikes", "50")),
+                Integer.parseInt(options.getOrDefault("reservations", "500")),
+                Integer.parseInt(options.getOrDefault("payments", "300")),
+                Path.of(options.getOrDefault("report", "target/load-report.json")),
+                Path.of(options.getOrDefault("repo-dir", "..")).toAbsolutePath().normalize(),
+                Boolean.parseBoolean(options.getOrDefault("virtual-threads", "true")),
+                options.getOrDefault("internal-transport", "rest"));
+        if (config.rate <= 0 || config.users <= 0 || config.maxInFlight <= 0) {
+            throw new IllegalArgumentException("rate, users and max-in-flight must be positive");
+        }
+        if (!"rest".equals(config.internalTransport) && !"grpc".equals(config.internalTransport)) {
+            throw new IllegalArgumentException("internal-transport must be rest or grpc");
+        }
+        return config;
+    }
+
+    // "500ms", "30s", "2m"
+    static Duration duration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        if (trimmed.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(trimmed));
+    }
+
+    static Map<String, Integer> mix(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight in mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix is empty");
+        }
+        return weights;
+    }
+}
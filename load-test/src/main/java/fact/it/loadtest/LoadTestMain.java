@@ -0,0 +1,55 @@
+package fact.it.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Boots the whole system in-process, seeds it, drives the configured traffic mix through the
+// gateway and writes the report. See LoadTestConfig for the options.
+public class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JwtIssuer issuer = new JwtIssuer();
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+
+        try (ServiceStack stack = new ServiceStack(config.repoDir(), issuer, config.virtualThreads(),
+                config.internalTransport())) {
+            stack.start();
+            Seeder.SeedData data = new Seeder(httpClient, objectMapper).seed(stack, config);
+            log.info("Seeded {} clients, {} motorbikes, {} reservations, {} payments", data.clientIds().size(),
+                    data.motorbikeIds().size(), data.reservationIds().size(), data.paymentIds().size());
+
+            Duration tokenValidity = config.warmup().plus(config.duration()).plusMinutes(10);
+            List<String> tokens = new ArrayList<>();
+            for (int i = 0; i < config.users(); i++) {
+                tokens.add(issuer.token("load-user-" + i, tokenValidity));
+            }
+
+            TrafficDriver driver = new TrafficDriver(httpClient, objectMapper);
+            Map<String, EndpointStats> stats = driver.run(config, stack.gatewayUrl(), data, tokens);
+            Map<String, Object> report = LoadReport.build(config, stats, driver.dropped());
+            LoadReport.write(report, config.report(), objectMapper);
+            System.out.print(LoadReport.table(report));
+            log.info("Report written to {}", config.report().toAbsolutePath());
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package fact.it.loadtest;
+
+import fact.it.reservationservice.ReservationServiceApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+// ReservationServiceApplication also scans the client and motorbike packages, which are harmless
+// in its own module but would pull the other services' beans in on this shared classpath. This
+// boots the same beans from the reservation package only.
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@AutoConfigurationPackage(basePackages = "fact.it.reservationservice")
+@ComponentScan(basePackages = "fact.it.reservationservice",
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReservationServiceApplication.class))
+public class ReservationServiceLauncher {
+}
@@ -0,0 +1,74 @@
+package fact.it.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Creates the data the traffic mix reads and updates, directly against the services so seeding
+// isn't subject to the gateway's rate limits.
+public class Seeder {
+
+    public record SeedData(List<String> clientIds, List<Long> motorbikeIds, List<String> reservationIds,
+                           List<String> paymentIds) {
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Random random = new Random(42);
+
+    public Seeder(HttpClient httpClient, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    public SeedData seed(ServiceStack stack, LoadTestConfig config) throws IOException, InterruptedException {
+        List<String> clientIds = new ArrayList<>();
+        for (int i = 0; i < config.clients(); i++) {
+            clientIds.add(post(stack.clientServiceUrl() + "/clients", Map.of(
+                    "name", "Load Client " + i,
+                    "email", "load.client" + i + "@example.com",
+                    "phone", "+32 470 " + (100000 + i),
+                    "address", "Teststraat " + i + ", 2440 Geel")).get("id").asText());
+        }
+        List<Long> motorbikeIds = new ArrayList<>();
+        for (int i = 0; i < config.motorbikes(); i++) {
+            motorbikeIds.add(post(stack.motorbikeServiceUrl() + "/motorbikes", Map.of(
+                    "make", "Make " + (i % 7),
+                    "model", "Model " + i,
+                    "year", String.valueOf(2015 + i % 10),
+                    "price", 50 + i % 100)).get("id").asLong());
+        }
+        List<String> reservationIds = new ArrayList<>();
+        for (int i = 0; i < config.reservations(); i++) {
+            reservationIds.add(post(stack.reservationServiceUrl() + "/reservations",
+                    TrafficDriver.reservationBody(clientIds, motorbikeIds, random)).get("id").asText());
+        }
+        List<String> paymentIds = new ArrayList<>();
+        for (int i = 0; i < config.payments(); i++) {
+            paymentIds.add(post(stack.paymentServiceUrl() + "/payments",
+                    TrafficDriver.paymentBody(reservationIds, random)).get("id").asText());
+        }
+        return new SeedData(clientIds, motorbikeIds, reservationIds, paymentIds);
+    }
+
+    private JsonNode post(String url, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding " + url + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,197 @@
+package fact.it.loadtest;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import fact.it.apigateway.ApiGatewayApplication;
+import fact.it.clientservice.ClientServiceApplication;
+import fact.it.motorbikeservice.MotorbikeServiceApplication;
+import fact.it.paymentservice.PaymentServiceApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Boots the gateway and the four services in this JVM, each with its own application context,
+// its own configuration file from the module and a free port. MongoDB is replaced by an
+// in-memory mongo-java-server and MySQL by H2 in MySQL mode. The shared classpath carries every
+// module's dependencies, so each context excludes the auto-configuration it doesn't use.
+public class ServiceStack implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceStack.class);
+
+    private static final String SECURITY_EXCLUDES = String.join(",",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration");
+    private static final String JDBC_EXCLUDES = String.join(",",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration");
+    private static final String MONGO_EXCLUDES = String.join(",",
+            "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+            "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+
+    private final Path repoDir;
+    private final JwtIssuer issuer;
+    private final boolean virtualThreads;
+    private final String internalTransport;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private MongoServer mongo;
+    private int gatewayPort;
+    private int clientPort;
+    private int motorbikePort;
+    private int reservationPort;
+    private int paymentPort;
+
+    public ServiceStack(Path repoDir, JwtIssuer issuer, boolean virtualThreads, String internalTransport) {
+        this.repoDir = repoDir;
+        this.issuer = issuer;
+        this.virtualThreads = virtualThreads;
+        this.internalTransport = internalTransport;
+    }
+
+    // The gateway must be reactive Netty; with Tomcat on the classpath Boot would otherwise pick it
+    @Configuration(proxyBeanMethods = false)
+    static class NettyServer {
+        @Bean
+        NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+
+    public void start() {
+        mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongo.bind();
+        String mongoHost = "localhost:" + mongoAddress.getPort();
+        gatewayPort = freePort();
+        clientPort = freePort();
+        motorbikePort = freePort();
+        reservationPort = freePort();
+        paymentPort = freePort();
+        int clientGrpcPort = freePort();
+        int motorbikeGrpcPort = freePort();
+        int reservationGrpcPort = freePort();
+
+        boot(WebApplicationType.SERVLET, "client-service", "application.properties", clientPort,
+                new Class<?>[]{ClientServiceApplication.class},
+                "--grpc.server.port=" + clientGrpcPort,
+                "--spring.data.mongodb.uri=mongodb://" + mongoHost + "/clientdb",
+                "--spring.autoconfigure.exclude=" + SECURITY_EXCLUDES + "," + JDBC_EXCLUDES);
+        boot(WebApplicationType.SERVLET, "motorbike-service", "application.properties", motorbikePort,
+                new Class<?>[]{MotorbikeServiceApplication.class},
+                "--grpc.server.port=" + motorbikeGrpcPort,
+                "--spring.datasource.url=jdbc:h2:mem:motorbikedb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.autoconfigure.exclude=" + SECURITY_EXCLUDES + "," + MONGO_EXCLUDES);
+        boot(WebApplicationType.SERVLET, "reservation-service", "application.properties", reservationPort,
+                new Class<?>[]{ReservationServiceLauncher.class},
+                "--spring.data.mongodb.uri=mongodb://" + mongoHost + "/reservationdb",
+                "--spring.autoconfigure.exclude=" + SECURITY_EXCLUDES + "," + JDBC_EXCLUDES,
+                "--spring.cloud.discovery.client.simple.instances.client-service[0].uri=http://localhost:" + clientPort,
+                "--spring.cloud.discovery.client.simple.instances.client-service[0].metadata.grpc-port=" + clientGrpcPort,
+                "--spring.cloud.discovery.client.simple.instances.motorbike-service[0].uri=http://localhost:" + motorbikePort,
+                "--spring.cloud.discovery.client.simple.instances.motorbike-service[0].metadata.grpc-port=" + motorbikeGrpcPort,
+                "--grpc.server.port=" + reservationGrpcPort,
+                "--internal.transport=" + internalTransport);
+        boot(WebApplicationType.SERVLET, "payment-service", "application.properties", paymentPort,
+                new Class<?>[]{PaymentServiceApplication.class},
+                "--spring.data.mongodb.uri=mongodb://" + mongoHost + "/paymentdb",
+                "--spring.autoconfigure.exclude=" + SECURITY_EXCLUDES + "," + JDBC_EXCLUDES,
+                "--spring.cloud.discovery.client.simple.instances.reservation-service[0].uri=http://localhost:" + reservationPort,
+                "--spring.cloud.discovery.client.simple.instances.reservation-service[0].metadata.grpc-port=" + reservationGrpcPort,
+                "--internal.transport=" + internalTransport);
+        boot(WebApplicationType.REACTIVE, "api-gateway", "application.yml", gatewayPort,
+                new Class<?>[]{ApiGatewayApplication.class, NettyServer.class},
+                "--spring.autoconfigure.exclude=" + JDBC_EXCLUDES + "," + MONGO_EXCLUDES,
+                "--spring.security.oauth2.client.registration.google.client-id=" + JwtIssuer.AUDIENCE,
+                "--spring.security.oauth2.client.registration.google.client-secret=load-test",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + JwtIssuer.ISSUER,
+                "--spring.security.oauth2.resourceserver.jwt.audiences=" + JwtIssuer.AUDIENCE,
+                "--gateway.jwt.jwk-set-file=file:" + issuer.getJwkSetFile(),
+                "--spring.cloud.discovery.client.simple.instances.client-service[0].uri=http://localhost:" + clientPort,
+                "--spring.cloud.discovery.client.simple.instances.motorbike-service[0].uri=http://localhost:" + motorbikePort,
+                "--spring.cloud.discovery.client.simple.instances.reservation-service[0].uri=http://localhost:" + reservationPort,
+                "--spring.cloud.discovery.client.simple.instances.payment-service[0].uri=http://localhost:" + paymentPort);
+    }
+
+    private void boot(WebApplicationType type, String module, String configFile, int port, Class<?>[] sources,
+                      String... overrides) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.config.location=file:" + repoDir.resolve(module).resolve("src/main/resources").resolve(configFile));
+        args.add("--server.port=" + port);
+        args.add("--spring.main.banner-mode=off");
+        if (type == WebApplicationType.SERVLET) {
+            args.add("--spring.cloud.gateway.enabled=false");
+            args.add("--spring.threads.virtual.enabled=" + virtualThreads);
+        }
+        // mongo-java-server doesn't implement the hello command the Mongo health indicator sends,
+        // and a DOWN health check would take the instance out of load balancing
+        args.add("--management.health.mongo.enabled=false");
+        Collections.addAll(args, overrides);
+        log.info("Starting {} on port {}", module, port);
+        contexts.add(new SpringApplicationBuilder(sources)
+                .web(type)
+                .registerShutdownHook(false)
+                .run(args.toArray(String[]::new)));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String gatewayUrl() {
+        return "http://localhost:" + gatewayPort;
+    }
+
+    public String clientServiceUrl() {
+        return "http://localhost:" + clientPort;
+    }
+
+    public String motorbikeServiceUrl() {
+        return "http://localhost:" + motorbikePort;
+    }
+
+    public String reservationServiceUrl() {
+        return "http://localhost:" + reservationPort;
+    }
+
+    public String paymentServiceUrl() {
+        return "http://localhost:" + paymentPort;
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+        if (mongo != null) {
+            mongo.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package fact.it.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load generator: requests are started on an arrival schedule (poisson or constant
+// rate) whether or not earlier ones have completed, like independent users would. Each arrival
+// picks an endpoint from the weighted mix and a random JWT subject.
+public class TrafficDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficDriver.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @FunctionalInterface
+    interface Endpoint {
+        HttpRequest.Builder request(String gatewayUrl, Seeder.SeedData data, Random random) throws JsonProcessingException;
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public TrafficDriver(HttpClient httpClient, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        endpoints.put("motorbikes-list", (url, data, random) -> get(url + "/motorbikes"));
+        endpoints.put("motorbike-get", (url, data, random) -> get(url + "/motorbikes/" + pick(data.motorbikeIds(), random)));
+        endpoints.put("client-get", (url, data, random) -> get(url + "/clients/" + pick(data.clientIds(), random)));
+        endpoints.put("reservations-list", (url, data, random) -> get(url + "/reservations"));
+        endpoints.put("reservation-details", (url, data, random) ->
+                get(url + "/reservations/" + pick(data.reservationIds(), random) + "/details"));
+        endpoints.put("payment-details", (url, data, random) ->
+                get(url + "/payments/" + pick(data.paymentIds(), random) + "/details"));
+        endpoints.put("bff-reservation", (url, data, random) ->
+                get(url + "/bff/reservations/" + pick(data.reservationIds(), random)));
+        endpoints.put("create-reservation", (url, data, random) -> json(url + "/reservations")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                        reservationBody(data.clientIds(), data.motorbikeIds(), random)))));
+        endpoints.put("update-payment", (url, data, random) -> json(url + "/payments/" + pick(data.paymentIds(), random))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                        paymentBody(data.reservationIds(), random)))));
+    }
+
+    static Map<String, Object> reservationBody(List<String> clientIds, List<Long> motorbikeIds, Random random) {
+        int day = 1 + random.nextInt(20);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("clientId", pick(clientIds, random));
+        body.put("motorbikeId", pick(motorbikeIds, random));
+        body.put("reservationDate", "2025-05-01");
+        body.put("startDate", String.format("2025-06-%02d", day));
+        body.put("endDate", String.format("2025-06-%02d", day + 1 + random.nextInt(7)));
+        return body;
+    }
+
+    static Map<String, Object> paymentBody(List<String> reservationIds, Random random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("reservationId", pick(reservationIds, random));
+        body.put("amount", 50 + random.nextInt(450));
+        body.put("paymentDate", "2025-05-02");
+        body.put("status", random.nextBoolean() ? "Paid" : "Pending");
+        return body;
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET();
+    }
+
+    private static HttpRequest.Builder json(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json");
+    }
+
+    public Map<String, EndpointStats> run(LoadTestConfig config, String gatewayUrl, Seeder.SeedData data,
+                                          List<String> tokens) throws InterruptedException {
+        List<String> names = new ArrayList<>();
+        int[] cumulativeWeights = new int[config.mix().size()];
+        int totalWeight = 0;
+        for (Map.Entry<String, Integer> entry : config.mix().entrySet()) {
+            if (!endpoints.containsKey(entry.getKey())) {
+                throw new IllegalArgumentException("Unknown endpoint '" + entry.getKey() + "', expected one of " + endpoints.keySet());
+            }
+            totalWeight += entry.getValue();
+            cumulativeWeights[names.size()] = totalWeight;
+            names.add(entry.getKey());
+            stats.put(entry.getKey(), new EndpointStats());
+        }
+
+        Random random = new Random(7);
+        SplittableRandom arrivals = new SplittableRandom(11);
+        double meanGapNanos = 1_000_000_000d / config.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        double next = start;
+        log.info("Driving {} req/s ({}) for {} after {} warm-up", config.rate(),
+                config.poisson() ? "poisson" : "constant", config.duration(), config.warmup());
+
+        while (next < end) {
+            long intended = (long) next;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            next += config.poisson() ? -Math.log(1 - arrivals.nextDouble()) * meanGapNanos : meanGapNanos;
+
+            int slot = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= slot) {
+                index++;
+            }
+            String name = names.get(index);
+            boolean measured = intended >= measureFrom;
+            if (inFlight.incrementAndGet() > config.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            HttpRequest request;
+            try {
+                request = endpoints.get(name).request(gatewayUrl, data, random)
+                        .header("Authorization", "Bearer " + pick(tokens, random))
+                        .timeout(REQUEST_TIMEOUT)
+                        .build();
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            EndpointStats endpointStats = stats.get(name);
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    endpointStats.record(System.nanoTime() - intended, response == null ? -1 : response.statusCode());
+                }
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
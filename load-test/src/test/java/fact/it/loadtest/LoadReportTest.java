@@ -0,0 +1,88 @@
+package fact.it.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Map<String, Object> report() {
+        EndpointStats motorbikes = new EndpointStats();
+        for (int i = 1; i <= 100; i++) {
+            motorbikes.record(i * 1_000_000L, 200);
+        }
+        EndpointStats payments = new EndpointStats();
+        payments.record(2_000_000L, 200);
+        payments.record(4_000_000L, 500);
+        payments.record(8_000_000L, -1);
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        stats.put("motorbike-get", motorbikes);
+        stats.put("update-payment", payments);
+        LoadTestConfig config = LoadTestConfig.parse(new String[]{"--rate=50", "--duration=10s", "--warmup=2s",
+                "--mix=motorbike-get:3,update-payment:1"});
+        return LoadReport.build(config, stats, 7);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReportSummarizesEachEndpointAndTheTotal() {
+        Map<String, Object> report = report();
+        assertEquals(List.of("config", "total", "endpoints"), List.copyOf(report.keySet()));
+
+        Map<String, Object> config = (Map<String, Object>) report.get("config");
+        assertEquals(50.0, config.get("rate"));
+        assertEquals("poisson", config.get("arrival"));
+        assertEquals(2.0, config.get("warmupSeconds"));
+        assertEquals(10.0, config.get("durationSeconds"));
+
+        Map<String, Object> total = (Map<String, Object>) report.get("total");
+        assertEquals(103L, total.get("requests"));
+        assertEquals(10.3, (Double) total.get("throughput"), 1e-9);
+        assertEquals(2L, total.get("errors"));
+        assertEquals(7L, total.get("dropped"));
+
+        Map<String, Object> endpoints = (Map<String, Object>) report.get("endpoints");
+        Map<String, Object> motorbikes = (Map<String, Object>) endpoints.get("motorbike-get");
+        Map<String, Object> latency = (Map<String, Object>) motorbikes.get("latencyMs");
+        assertEquals(List.of("p50", "p99", "p999", "max", "mean"), List.copyOf(latency.keySet()));
+        assertEquals(50.0, (Double) latency.get("p50"), 0.1);
+        assertEquals(100.0, (Double) latency.get("max"), 0.1);
+        assertEquals(0.0, motorbikes.get("errorRate"));
+
+        Map<String, Object> payments = (Map<String, Object>) endpoints.get("update-payment");
+        assertEquals(2.0 / 3, (Double) payments.get("errorRate"), 1e-9);
+        assertEquals(Map.of("200", 1L, "500", 1L, EndpointStats.TRANSPORT_ERROR, 1L), payments.get("outcomes"));
+    }
+
+    @Test
+    void testTableHasARowPerEndpointAndATotal() {
+        String[] lines = LoadReport.table(report()).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].matches("endpoint\\s+requests\\s+req/s\\s+errors\\s+p50 ms\\s+p99 ms\\s+p999 ms"), lines[0]);
+        assertTrue(lines[1].matches("motorbike-get\\s+100\\s+10\\.0\\s+0\\.00%\\s+50\\.\\d\\d\\s+99\\.\\d\\d\\s+100\\.\\d\\d"), lines[1]);
+        assertTrue(lines[2].startsWith("update-payment"), lines[2]);
+        assertTrue(lines[2].contains("66.67%"), lines[2]);
+        assertTrue(lines[3].matches("TOTAL\\s+103\\s+10\\.3\\s+1\\.94%.*"), lines[3]);
+    }
+
+    @Test
+    void testReportIsWrittenAsJson() throws Exception {
+        Path path = tempDir.resolve("reports/run.json");
+        ObjectMapper objectMapper = new ObjectMapper();
+        LoadReport.write(report(), path, objectMapper);
+        JsonNode written = objectMapper.readTree(path.toFile());
+        assertEquals(103, written.at("/total/requests").asLong());
+        assertEquals(1, written.at("/endpoints/update-payment/outcomes/500").asLong());
+    }
+}
@@ -0,0 +1,118 @@
+package fact.it.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficDriverTest {
+
+    private static final Seeder.SeedData DATA = new Seeder.SeedData(
+            List.of("c1", "c2"), List.of(1L, 2L), List.of("r1"), List.of("p1"));
+
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer gateway;
+    private volatile boolean slow;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        gateway = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        gateway.setExecutor(Executors.newCachedThreadPool());
+        gateway.createContext("/", exchange -> {
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                    + " " + exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.getRequestBody().readAllBytes();
+            if (slow) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int status = exchange.getRequestURI().getPath().startsWith("/clients/") ? 503 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        gateway.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        gateway.stop(0);
+    }
+
+    private String gatewayUrl() {
+        return "http://localhost:" + gateway.getAddress().getPort();
+    }
+
+    private static LoadTestConfig config(String... args) {
+        return LoadTestConfig.parse(args);
+    }
+
+    @Test
+    void testArrivalsFollowTheRateAndTheMix() throws Exception {
+        TrafficDriver driver = new TrafficDriver(HttpClient.newHttpClient(), new ObjectMapper());
+        Map<String, EndpointStats> stats = driver.run(
+                config("--rate=100", "--arrival=constant", "--warmup=0s", "--duration=1s",
+                        "--mix=motorbike-get:1,client-get:1,create-reservation:2"),
+                gatewayUrl(), DATA, List.of("token-a", "token-b"));
+
+        long total = stats.values().stream().mapToLong(EndpointStats::requests).sum();
+        assertTrue(total >= 95 && total <= 101, "requests: " + total);
+        assertEquals(List.of("motorbike-get", "client-get", "create-reservation"), List.copyOf(stats.keySet()));
+        assertTrue(stats.get("create-reservation").requests() > stats.get("motorbike-get").requests());
+        assertEquals(stats.get("client-get").requests(), stats.get("client-get").errors());
+        assertEquals(Map.of("503", stats.get("client-get").requests()), stats.get("client-get").outcomes());
+        assertEquals(0, stats.get("motorbike-get").errors());
+        assertEquals(0, driver.dropped());
+
+        assertEquals(total, received.size());
+        assertTrue(received.stream().allMatch(request ->
+                request.matches("(GET /motorbikes/[12]|GET /clients/c[12]|POST /reservations) Bearer token-[ab]")), received.toString());
+    }
+
+    @Test
+    void testArrivalsBeyondMaxInFlightAreDropped() throws Exception {
+        slow = true;
+        TrafficDriver driver = new TrafficDriver(HttpClient.newHttpClient(), new ObjectMapper());
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(600);
+            } catch (InterruptedException e) {
+                return;
+            }
+            release.countDown();
+        });
+        Map<String, EndpointStats> stats = driver.run(
+                config("--rate=50", "--arrival=constant", "--warmup=0s", "--duration=500ms",
+                        "--max-in-flight=2", "--mix=motorbikes-list:1"),
+                gatewayUrl(), DATA, List.of("token"));
+        releaser.join();
+
+        assertEquals(2, stats.get("motorbikes-list").requests());
+        assertTrue(driver.dropped() >= 20, "dropped: " + driver.dropped());
+    }
+
+    @Test
+    void testUnknownEndpointInTheMixIsRejected() {
+        TrafficDriver driver = new TrafficDriver(HttpClient.newHttpClient(), new ObjectMapper());
+        assertThrows(IllegalArgumentException.class, () -> driver.run(
+                config("--duration=1s", "--mix=motorbike-get:1,no-such-endpoint:1"), gatewayUrl(), DATA, List.of("token")));
+    }
+}
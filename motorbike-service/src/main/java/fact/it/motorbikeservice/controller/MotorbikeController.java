@@ -25,6 +25,12 @@ public class MotorbikeController {
         return motorbikeService.getMotorbikeById(id);
     }
 
+    // Bulk existence check for other services: returns the ids from the body that exist
+    @PostMapping("/existing")
+    public List<Long> getExistingIds(@RequestBody List<Long> ids) {
+        return motorbikeService.getExistingIds(ids);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteMotorbikeById(@PathVariable Long id) {
         motorbikeService.deleteMotorbikeById(id);
@@ -0,0 +1,65 @@
+package fact.it.motorbikeservice.grpc;
+
+import fact.it.grpc.LookupProto;
+import fact.it.grpc.MotorbikeLookupGrpc;
+import fact.it.motorbikeservice.model.Motorbike;
+import fact.it.motorbikeservice.service.MotorbikeService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// The MotorbikeLookup gRPC service: the same reads as GET /motorbikes/{id} and
+// POST /motorbikes/existing, plus a batched get, for the other services
+@Component
+@RequiredArgsConstructor
+public class MotorbikeLookupService extends MotorbikeLookupGrpc.MotorbikeLookupImplBase {
+
+    private final MotorbikeService motorbikeService;
+
+    @Override
+    public void getMotorbike(LookupProto.NumericId request, StreamObserver<LookupProto.Motorbike> responseObserver) {
+        List<Motorbike> motorbikes = motorbikeService.getMotorbikesByIds(List.of(request.getId()));
+        if (motorbikes.isEmpty()) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription("Motorbike not found: " + request.getId()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(toMessage(motorbikes.get(0)));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getMotorbikes(LookupProto.NumericIds request, StreamObserver<LookupProto.Motorbikes> responseObserver) {
+        LookupProto.Motorbikes.Builder motorbikes = LookupProto.Motorbikes.newBuilder();
+        for (Motorbike motorbike : motorbikeService.getMotorbikesByIds(request.getIdsList())) {
+            motorbikes.addMotorbikes(toMessage(motorbike));
+        }
+        responseObserver.onNext(motorbikes.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void existingMotorbikes(LookupProto.NumericIds request, StreamObserver<LookupProto.NumericIds> responseObserver) {
+        responseObserver.onNext(LookupProto.NumericIds.newBuilder()
+                .addAllIds(motorbikeService.getExistingIds(request.getIdsList())).build());
+        responseObserver.onCompleted();
+    }
+
+    static LookupProto.Motorbike toMessage(Motorbike motorbike) {
+        LookupProto.Motorbike.Builder message = LookupProto.Motorbike.newBuilder()
+                .setId(motorbike.getId())
+                .setPrice(motorbike.getPrice());
+        if (motorbike.getMake() != null) {
+            message.setMake(motorbike.getMake());
+        }
+        if (motorbike.getModel() != null) {
+            message.setModel(motorbike.getModel());
+        }
+        if (motorbike.getYear() != null) {
+            message.setYear(motorbike.getYear());
+        }
+        return message.build();
+    }
+}
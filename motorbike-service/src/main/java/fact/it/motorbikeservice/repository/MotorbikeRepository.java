@@ -2,9 +2,17 @@ package fact.it.motorbikeservice.repository;
 
 import fact.it.motorbikeservice.model.Motorbike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface MotorbikeRepository extends JpaRepository<Motorbike, Long> {
     // Custom query methods can go here if needed
+
+    @Query("select m.id from Motorbike m where m.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
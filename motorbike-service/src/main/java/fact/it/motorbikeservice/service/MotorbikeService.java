@@ -31,6 +31,22 @@ public class MotorbikeService {
         }
     }
 
+    // The subset of ids that belong to a stored motorbike, in one query
+    public List<Long> getExistingIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return motorbikeRepository.findExistingIds(ids);
+    }
+
+    // The stored motorbikes among the ids, in one query; unknown ids are left out
+    public List<Motorbike> getMotorbikesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return motorbikeRepository.findAllById(ids);
+    }
+
     public void deleteMotorbikeById(Long id) {
         motorbikeRepository.deleteById(id);
     }
@@ -0,0 +1,76 @@
+package fact.it.motorbikeservice;
+
+import fact.it.grpc.LookupProto;
+import fact.it.grpc.MotorbikeLookupGrpc;
+import fact.it.motorbikeservice.grpc.MotorbikeLookupService;
+import fact.it.motorbikeservice.model.Motorbike;
+import fact.it.motorbikeservice.service.MotorbikeService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MotorbikeLookupServiceTest {
+    @Mock
+    private MotorbikeService motorbikeService;
+
+    @InjectMocks
+    private MotorbikeLookupService motorbikeLookupService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private MotorbikeLookupGrpc.MotorbikeLookupBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        server = NettyServerBuilder.forPort(0).directExecutor().addService(motorbikeLookupService).build().start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        stub = MotorbikeLookupGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testGetMotorbikeMirrorsTheEntity() {
+        when(motorbikeService.getMotorbikesByIds(List.of(1L))).thenReturn(List.of(new Motorbike(1L, "Yamaha", "MT-07", null, 7000.0)));
+        LookupProto.Motorbike motorbike = stub.getMotorbike(LookupProto.NumericId.newBuilder().setId(1L).build());
+        assertEquals(1L, motorbike.getId());
+        assertEquals("Yamaha", motorbike.getMake());
+        assertEquals("MT-07", motorbike.getModel());
+        assertFalse(motorbike.hasYear());
+        assertEquals(7000.0, motorbike.getPrice());
+    }
+
+    @Test
+    void testGetUnknownMotorbikeIsNotFound() {
+        when(motorbikeService.getMotorbikesByIds(List.of(9L))).thenReturn(List.of());
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.getMotorbike(LookupProto.NumericId.newBuilder().setId(9L).build()));
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void testBatchedGetAndExistenceCheck() {
+        when(motorbikeService.getMotorbikesByIds(List.of(1L, 2L))).thenReturn(List.of(new Motorbike(2L, "Honda", "CB500F", "2021", 6000.0)));
+        when(motorbikeService.getExistingIds(List.of(1L, 2L))).thenReturn(List.of(2L));
+        LookupProto.NumericIds ids = LookupProto.NumericIds.newBuilder().addAllIds(List.of(1L, 2L)).build();
+        assertEquals("Honda", stub.getMotorbikes(ids).getMotorbikes(0).getMake());
+        assertEquals(List.of(2L), stub.existingMotorbikes(ids).getIdsList());
+    }
+}
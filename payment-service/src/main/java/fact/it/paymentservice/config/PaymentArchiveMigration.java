@@ -0,0 +1,27 @@
+package fact.it.paymentservice.config;
+
+import fact.it.common.tiering.ArchiveCollectionMigration;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.tiering.PaymentArchive;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+// Creates payments_archive and indexes payments by status for the tiering job's scan
+@Component
+@ConditionalOnProperty(name = "tiering.enabled", matchIfMissing = true)
+public class PaymentArchiveMigration extends ArchiveCollectionMigration {
+
+    public PaymentArchiveMigration(MongoTemplate mongoTemplate, @Value("${tiering.compressor:zstd}") String compressor) {
+        super(mongoTemplate, PaymentArchive.COLLECTION, compressor);
+    }
+
+    @Override
+    protected void indexLiveCollection() {
+        mongoTemplate.indexOps(Payment.class).ensureIndex(new Index().on("status", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC).named("status_id"));
+    }
+}
@@ -9,5 +9,6 @@ public class PaymentDetailsDTO {
     private double amount;
     private String paymentDate;
     private String status;
+    // RawJson in passthrough mode (payment.details.passthrough), otherwise the parsed Map
     private Object reservationDetails;
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package fact.it.paymentservice.grpc;
+
+import fact.it.grpc.LoadBalancedChannels;
+import fact.it.grpc.LookupProto;
+import fact.it.grpc.ReservationLookupGrpc;
+import io.grpc.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Reservation lookups over the internal gRPC API, used instead of REST when
+// internal.transport=grpc. Instances are picked per call by the same load balancer as the REST
+// calls (see LoadBalancedChannels), from the instance list in application.properties.
+@Component
+@ConditionalOnProperty(name = "internal.transport", havingValue = "grpc")
+public class GrpcLookupClient {
+
+    private static final String RESERVATION_SERVICE = "reservation-service";
+
+    private final LoadBalancedChannels channels;
+    private final Duration deadline;
+
+    public GrpcLookupClient(LoadBalancerClient loadBalancerClient, MeterRegistry meterRegistry,
+                            @Value("${internal.grpc.deadline:2s}") Duration deadline) {
+        this.channels = new LoadBalancedChannels(loadBalancerClient, meterRegistry);
+        this.deadline = deadline;
+    }
+
+    private ReservationLookupGrpc.ReservationLookupBlockingStub reservations(Channel channel) {
+        return ReservationLookupGrpc.newBlockingStub(channel).withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // A missing id matches no reservation; proto fields can't hold null, so it never leaves here
+    public boolean reservationExists(String id) {
+        if (id == null || id.isBlank()) {
+            return false;
+        }
+        return channels.find(RESERVATION_SERVICE, channel -> reservations(channel)
+                .getReservation(LookupProto.Id.newBuilder().setId(id).build())) != null;
+    }
+
+    // The ids from the request that reservation-service still has, live or archived
+    public Set<String> existingReservations(Collection<String> ids) {
+        return new HashSet<>(channels.call(RESERVATION_SERVICE, channel -> reservations(channel)
+                .existingReservations(LookupProto.Ids.newBuilder().addAllIds(ids).build())).getIdsList());
+    }
+
+    // The ids from the request that reservation-service has moved to its archive tier
+    public Set<String> archivedReservations(Collection<String> ids) {
+        return new HashSet<>(channels.call(RESERVATION_SERVICE, channel -> reservations(channel)
+                .archivedReservations(LookupProto.Ids.newBuilder().addAllIds(ids).build())).getIdsList());
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.close();
+    }
+}
@@ -0,0 +1,106 @@
+package fact.it.paymentservice.integrity;
+
+import fact.it.common.batch.BulkLookup;
+import fact.it.common.batch.IntegritySweeper;
+import fact.it.paymentservice.grpc.GrpcLookupClient;
+import fact.it.paymentservice.model.OrphanedPayment;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.repository.OrphanedPaymentRepository;
+import fact.it.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Finds payments whose reservation has been deleted, with one bulk lookup against
+// reservation-service per batch (REST or gRPC, per internal.transport). Orphans are recorded in
+// orphaned_payments. A payment without a reservation id is left alone rather than flagged or
+// archived.
+@Component
+@ConditionalOnProperty(name = "integrity.sweep.enabled", matchIfMissing = true)
+public class PaymentIntegritySweeper extends IntegritySweeper<Payment> {
+
+    private static final String RESERVATIONS_EXISTING_URL = "http://reservation-service/reservations/existing";
+
+    private final PaymentRepository paymentRepository;
+    private final OrphanedPaymentRepository orphanedPaymentRepository;
+    private final RestTemplate restTemplate;
+    private final GrpcLookupClient grpcLookupClient;
+
+    public PaymentIntegritySweeper(PaymentRepository paymentRepository,
+                                   OrphanedPaymentRepository orphanedPaymentRepository,
+                                   RestTemplate restTemplate,
+                                   Optional<GrpcLookupClient> grpcLookupClient,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${integrity.sweep.batch-size:500}") int batchSize,
+                                   @Value("${integrity.sweep.max-records-per-second:200}") double maxRecordsPerSecond,
+                                   @Value("${integrity.sweep.action:flag}") String action) {
+        super("payment", meterRegistry, batchSize, maxRecordsPerSecond, action);
+        this.paymentRepository = paymentRepository;
+        this.orphanedPaymentRepository = orphanedPaymentRepository;
+        this.restTemplate = restTemplate;
+        this.grpcLookupClient = grpcLookupClient.orElse(null);
+    }
+
+    @Scheduled(initialDelayString = "${integrity.sweep.initial-delay:10m}", fixedDelayString = "${integrity.sweep.interval:6h}")
+    public void sweep() {
+        runExclusively();
+    }
+
+    @Override
+    protected List<Payment> batchAfter(String lastId, int batchSize) {
+        return lastId == null
+                ? paymentRepository.findAllByOrderByIdAsc(Limit.of(batchSize))
+                : paymentRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+    }
+
+    @Override
+    protected String idOf(Payment payment) {
+        return payment.getId();
+    }
+
+    @Override
+    protected int checkBatch(List<Payment> batch) {
+        Set<String> reservationIds = new LinkedHashSet<>();
+        for (Payment payment : batch) {
+            if (payment.getReservationId() != null) {
+                reservationIds.add(payment.getReservationId());
+            }
+        }
+        Set<String> existingReservations = grpcLookupClient != null
+                ? grpcLookupClient.existingReservations(reservationIds)
+                : BulkLookup.found(restTemplate, RESERVATIONS_EXISTING_URL, reservationIds, String[].class);
+
+        Set<String> orphanIds = new LinkedHashSet<>();
+        for (Payment payment : batch) {
+            if (payment.getReservationId() != null && !existingReservations.contains(payment.getReservationId())) {
+                orphanIds.add(payment.getId());
+            }
+        }
+        if (orphanIds.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        List<OrphanedPayment> orphans = new ArrayList<>();
+        for (Payment payment : paymentRepository.findAllById(orphanIds)) {
+            orphans.add(new OrphanedPayment(payment.getId(), payment, isArchive(), now));
+            orphanFound("reservation");
+        }
+        orphanedPaymentRepository.saveAll(orphans);
+        if (isArchive()) {
+            paymentRepository.deleteAllById(orphans.stream().map(OrphanedPayment::getId).toList());
+        }
+        return orphans.size();
+    }
+}
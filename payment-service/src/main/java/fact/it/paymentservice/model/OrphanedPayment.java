@@ -0,0 +1,22 @@
+package fact.it.paymentservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// A payment the integrity sweep found pointing at a reservation that no longer exists.
+// Keyed by the payment id, so finding the same orphan again overwrites rather than duplicates.
+// Holds a full copy, so an archived (removed) payment can still be inspected or restored.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "orphaned_payments")
+public class OrphanedPayment {
+    private String id;
+    private Payment payment;
+    private boolean archived;
+    private Instant detectedAt;
+}
@@ -0,0 +1,7 @@
+package fact.it.paymentservice.repository;
+
+import fact.it.paymentservice.model.OrphanedPayment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface OrphanedPaymentRepository extends MongoRepository<OrphanedPayment, String> {
+}
@@ -1,8 +1,25 @@
 package fact.it.paymentservice.repository;
 
 import fact.it.paymentservice.model.Payment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PaymentRepository extends MongoRepository<Payment, String> {
     // You can add custom query methods if needed
+
+    // Keyset-paged scan in id order for the integrity sweep, carrying only the reference
+    @Query(fields = "{ 'reservationId': 1 }")
+    List<Payment> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(fields = "{ 'reservationId': 1 }")
+    List<Payment> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Keyset-paged scan over payments in the given statuses, for the tiering job
+    List<Payment> findByStatusInOrderByIdAsc(Collection<String> statuses, Limit limit);
+
+    List<Payment> findByStatusInAndIdGreaterThanOrderByIdAsc(Collection<String> statuses, String id, Limit limit);
 }
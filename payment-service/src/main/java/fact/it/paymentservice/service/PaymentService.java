@@ -1,9 +1,14 @@
 package fact.it.paymentservice.service;
 
+import fact.it.common.json.RawJson;
+import fact.it.paymentservice.grpc.GrpcLookupClient;
 import fact.it.paymentservice.model.Payment;
 import fact.it.paymentservice.repository.PaymentRepository;
-import jakarta.annotation.PostConstruct;
+import fact.it.paymentservice.tiering.PaymentArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
@@ -13,20 +18,38 @@ import java.util.List;
 @Service
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private PaymentArchive paymentArchive;
+
     @Autowired
     private RestTemplate restTemplate;
 
-    private final String RESERVATION_SERVICE_URL = "http://reservation-service:8083/reservations/";
+    // Reservation details are embedded in payment details as received (RawJson) instead of being
+    // parsed into a Map tree and serialized again
+    @Value("${payment.details.passthrough:true}")
+    private boolean passthrough = true;
+
+    // Present when internal.transport=grpc: reservation checks then use gRPC instead of REST. The
+    // details lookup stays on REST, it is a view composed by reservation-service.
+    @Autowired(required = false)
+    private GrpcLookupClient grpcLookupClient;
+
+    // URI templates, so http.client.requests is tagged per endpoint rather than per id
+    private final String RESERVATION_SERVICE_URL = "http://reservation-service/reservations/{id}";
+    private final String RESERVATION_DETAILS_URL = "http://reservation-service/reservations/{id}/details";
 
     public List<Payment> getAllPayments() {
         return paymentRepository.findAll();
     }
 
+    // Live collection first; settled payments moved out by the tiering job come from the archive
     public Payment getPaymentById(String id) {
-        return paymentRepository.findById(id).orElse(null);
+        return paymentRepository.findById(id).orElseGet(() -> paymentArchive.findById(id));
     }
 
     public Payment savePayment(Payment payment) {
@@ -35,12 +58,18 @@ public class PaymentService {
 
     public void deletePayment(String id) {
         paymentRepository.deleteById(id);
+        paymentArchive.deleteById(id);
     }
 
+    // GET /reservations/{id} answers an unknown id with an empty 200 body, gRPC with NOT_FOUND;
+    // both (and a 404) mean the reservation doesn't exist
     public boolean reservationExists(String reservationId) {
+        if (grpcLookupClient != null) {
+            return grpcLookupClient.reservationExists(reservationId);
+        }
         try {
-            restTemplate.getForObject(RESERVATION_SERVICE_URL + reservationId, Object.class);
-            return true;
+            String reservation = restTemplate.getForObject(RESERVATION_SERVICE_URL, String.class, reservationId);
+            return reservation != null && !reservation.isBlank();
         } catch (HttpClientErrorException.NotFound e) {
             return false;
         }
@@ -48,8 +77,11 @@ public class PaymentService {
 
     public Object getReservationDetails(String reservationId) {
         try {
-            return restTemplate.getForObject(RESERVATION_SERVICE_URL + reservationId + "/details", Object.class);
+            return passthrough
+                    ? RawJson.of(restTemplate.getForObject(RESERVATION_DETAILS_URL, String.class, reservationId))
+                    : restTemplate.getForObject(RESERVATION_DETAILS_URL, Object.class, reservationId);
         } catch (Exception e) {
+            log.warn("Reservation details lookup {} failed: {}", reservationId, e.toString());
             return null;
         }
     }
@@ -57,6 +89,10 @@ public class PaymentService {
     public Payment updatePayment(String id, Payment updatedPayment) {
         Payment existing = paymentRepository.findById(id).orElse(null);
         if (existing == null) {
+            // Archived payments are finished history: readable, but read-only
+            if (!paymentArchive.getExistingIds(List.of(id)).isEmpty()) {
+                throw new RuntimeException("Payment " + id + " is archived and can no longer be changed");
+            }
             throw new RuntimeException("Payment not found with id: " + id);
         }
         // Validate reservation existence
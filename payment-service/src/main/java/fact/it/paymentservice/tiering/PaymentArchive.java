@@ -0,0 +1,24 @@
+package fact.it.paymentservice.tiering;
+
+import fact.it.common.tiering.MongoArchive;
+import fact.it.paymentservice.model.Payment;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+// The cold tier: settled payments of archived reservations, moved out of the live collection by
+// PaymentTieringJob.
+@Component
+public class PaymentArchive extends MongoArchive<Payment> {
+
+    public static final String COLLECTION = "payments_archive";
+
+    public PaymentArchive(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        super(mongoTemplate, meterRegistry, Payment.class, COLLECTION, "payment");
+    }
+
+    @Override
+    protected String idOf(Payment payment) {
+        return payment.getId();
+    }
+}
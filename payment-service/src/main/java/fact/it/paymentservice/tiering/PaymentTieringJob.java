@@ -0,0 +1,132 @@
+package fact.it.paymentservice.tiering;
+
+import fact.it.common.batch.BulkLookup;
+import fact.it.common.batch.PacedBatchJob;
+import fact.it.paymentservice.grpc.GrpcLookupClient;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Moves settled payments whose reservation reservation-service has archived into the payment
+// archive tier. Walks the settled payments in id order, one batch at a time, with one bulk
+// lookup per batch (REST or gRPC, per internal.transport); copies to the archive first and then
+// deletes from the live collection, so a run that stops halfway leaves a payment in both tiers
+// rather than in neither. A run checks at most max-records-per-run payments and the next run
+// picks up after the last id it checked, so the settled payments are covered over several runs
+// instead of rescanned in full each time.
+@Component
+@ConditionalOnProperty(name = "tiering.enabled", matchIfMissing = true)
+public class PaymentTieringJob extends PacedBatchJob {
+
+    private static final String RESERVATIONS_ARCHIVED_URL = "http://reservation-service/reservations/archived";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentArchive paymentArchive;
+    private final RestTemplate restTemplate;
+    private final GrpcLookupClient grpcLookupClient;
+    private final Set<String> settledStatuses;
+    private final int batchSize;
+    private final long maxRecordsPerRun;
+    private final Counter archived;
+
+    // Where the next run starts; null means from the first settled payment
+    private volatile String resumeAfter;
+
+    public PaymentTieringJob(PaymentRepository paymentRepository,
+                             PaymentArchive paymentArchive,
+                             RestTemplate restTemplate,
+                             Optional<GrpcLookupClient> grpcLookupClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${tiering.settled-statuses:Paid}") Set<String> settledStatuses,
+                             @Value("${tiering.batch-size:500}") int batchSize,
+                             @Value("${tiering.max-records-per-run:50000}") long maxRecordsPerRun,
+                             @Value("${tiering.max-records-per-second:500}") double maxRecordsPerSecond) {
+        super("tiering", "payment", meterRegistry, maxRecordsPerSecond);
+        this.paymentRepository = paymentRepository;
+        this.paymentArchive = paymentArchive;
+        this.restTemplate = restTemplate;
+        this.grpcLookupClient = grpcLookupClient.orElse(null);
+        this.settledStatuses = settledStatuses;
+        this.batchSize = batchSize;
+        this.maxRecordsPerRun = maxRecordsPerRun;
+        this.archived = Counter.builder("tiering.archived").tag("entity", "payment").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${tiering.initial-delay:15m}", fixedDelayString = "${tiering.interval:24h}")
+    public void archive() {
+        runExclusively();
+    }
+
+    @Override
+    protected long run() {
+        long moved = 0;
+        long checked = 0;
+        String lastId = resumeAfter;
+        while (true) {
+            long batchStart = System.nanoTime();
+            List<Payment> batch = lastId == null
+                    ? paymentRepository.findByStatusInOrderByIdAsc(settledStatuses, Limit.of(batchSize))
+                    : paymentRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(settledStatuses, lastId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                resumeAfter = null;
+                return moved;
+            }
+            Set<String> archivedReservations = archivedReservations(batch);
+            List<Payment> settled = batch.stream()
+                    .filter(payment -> archivedReservations.contains(payment.getReservationId()))
+                    .toList();
+            if (!settled.isEmpty()) {
+                paymentArchive.store(settled);
+                paymentRepository.deleteAllById(settled.stream().map(Payment::getId).toList());
+                archived.increment(settled.size());
+                moved += settled.size();
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            checked += batch.size();
+            if (batch.size() < batchSize) {
+                resumeAfter = null;
+                return moved;
+            }
+            // Kept per batch, so a run that fails picks up again at the batch that failed
+            resumeAfter = lastId;
+            if (checked >= maxRecordsPerRun) {
+                return moved;
+            }
+            pace(batch.size(), batchStart);
+        }
+    }
+
+    @Override
+    protected void completed(long moved) {
+        log.info("Moved {} settled payments to {}", moved, PaymentArchive.COLLECTION);
+    }
+
+    @Override
+    protected void failed(RuntimeException e) {
+        log.warn("Payment tiering stopped: {}", e.toString());
+    }
+
+    private Set<String> archivedReservations(List<Payment> batch) {
+        Set<String> reservationIds = new LinkedHashSet<>();
+        for (Payment payment : batch) {
+            if (payment.getReservationId() != null) {
+                reservationIds.add(payment.getReservationId());
+            }
+        }
+        return grpcLookupClient != null
+                ? grpcLookupClient.archivedReservations(reservationIds)
+                : BulkLookup.found(restTemplate, RESERVATIONS_ARCHIVED_URL, reservationIds, String[].class);
+    }
+}
@@ -0,0 +1,88 @@
+package fact.it.paymentservice;
+
+import fact.it.paymentservice.integrity.PaymentIntegritySweeper;
+import fact.it.paymentservice.model.OrphanedPayment;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.repository.OrphanedPaymentRepository;
+import fact.it.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentIntegritySweeperTest {
+
+    private static final String RESERVATIONS_URL = "http://reservation-service/reservations/existing";
+
+    private PaymentRepository paymentRepository;
+    private OrphanedPaymentRepository orphanedPaymentRepository;
+    private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Payment valid = new Payment("p1", "r1", 100.0, "2024-06-01", "Paid");
+    private final Payment orphan = new Payment("p2", "r2", 50.0, "2024-06-02", "Pending");
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        orphanedPaymentRepository = mock(OrphanedPaymentRepository.class);
+        restTemplate = mock(RestTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(paymentRepository.findAllByOrderByIdAsc(Limit.of(10))).thenReturn(List.of(valid, orphan));
+        when(paymentRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return Stream.of(valid, orphan).filter(p -> ids.contains(p.getId())).toList();
+        });
+        when(restTemplate.postForObject(eq(RESERVATIONS_URL), any(), eq(String[].class))).thenReturn(new String[]{"r1"});
+    }
+
+    private PaymentIntegritySweeper sweeper(String action) {
+        return new PaymentIntegritySweeper(paymentRepository, orphanedPaymentRepository, restTemplate,
+                Optional.empty(), meterRegistry, 10, 0, action);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlagsPaymentsWithMissingReservation() {
+        sweeper("flag").sweep();
+
+        ArgumentCaptor<List<OrphanedPayment>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orphanedPaymentRepository).saveAll(saved.capture());
+        assertEquals(List.of("p2"), saved.getValue().stream().map(OrphanedPayment::getId).toList());
+        assertEquals(orphan, saved.getValue().get(0).getPayment());
+        verify(restTemplate, times(1)).postForObject(eq(RESERVATIONS_URL), any(), eq(String[].class));
+        verify(paymentRepository, never()).deleteAllById(any());
+        assertEquals(2, meterRegistry.get("integrity.sweep.records").counter().count());
+        assertEquals(1, meterRegistry.get("integrity.sweep.last.orphans").gauge().value());
+    }
+
+    @Test
+    void testArchiveRemovesOrphansFromLiveCollection() {
+        sweeper("archive").sweep();
+
+        verify(paymentRepository).deleteAllById(List.of("p2"));
+    }
+
+    @Test
+    void testLookupFailureStopsSweepWithoutFlagging() {
+        when(restTemplate.postForObject(eq(RESERVATIONS_URL), any(), eq(String[].class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        sweeper("flag").sweep();
+
+        verify(orphanedPaymentRepository, never()).saveAll(any());
+        assertEquals(1, meterRegistry.get("integrity.sweep.runs").tag("outcome", "failed").counter().count());
+    }
+}
@@ -1,13 +1,23 @@
 package fact.it.paymentservice;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fact.it.paymentservice.dto.PaymentDetailsDTO;
+import fact.it.common.json.RawJson;
+import fact.it.paymentservice.grpc.GrpcLookupClient;
 import fact.it.paymentservice.model.Payment;
 import fact.it.paymentservice.repository.PaymentRepository;
 import fact.it.paymentservice.service.PaymentService;
+import fact.it.paymentservice.tiering.PaymentArchive;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +28,12 @@ class PaymentServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private PaymentArchive paymentArchive;
+
+    @Mock
+    private RestTemplate restTemplate;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -45,6 +61,22 @@ class PaymentServiceTest {
         assertEquals("1", found.getId());
     }
 
+    @Test
+    void testArchivedPaymentsAreReadOnly() {
+        when(paymentRepository.findById("1")).thenReturn(Optional.empty());
+        when(paymentArchive.getExistingIds(List.of("1"))).thenReturn(List.of("1"));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> paymentService.updatePayment("1", payment));
+        assertEquals("Payment 1 is archived and can no longer be changed", e.getMessage());
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetPaymentByIdFallsBackToArchive() {
+        when(paymentRepository.findById("1")).thenReturn(Optional.empty());
+        when(paymentArchive.findById("1")).thenReturn(payment);
+        assertEquals(payment, paymentService.getPaymentById("1"));
+    }
+
     @Test
     void testSavePayment() {
         when(paymentRepository.save(payment)).thenReturn(payment);
@@ -58,4 +90,58 @@ class PaymentServiceTest {
         assertDoesNotThrow(() -> paymentService.deletePayment("1"));
         verify(paymentRepository, times(1)).deleteById("1");
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testReservationDetailsArePassedThroughVerbatim() throws Exception {
+        String details = "{\"id\":\"res1\",\"client\":{\"id\":\"c1\"},\"price\":12.50}";
+        when(restTemplate.getForObject("http://reservation-service/reservations/{id}/details", String.class, "res1"))
+                .thenReturn(details);
+        PaymentDetailsDTO dto = new PaymentDetailsDTO();
+        dto.setId("1");
+        dto.setReservationDetails(paymentService.getReservationDetails("res1"));
+        assertEquals(new RawJson(details), dto.getReservationDetails());
+        String json = new ObjectMapper().writeValueAsString(dto);
+        assertTrue(json.contains("\"reservationDetails\":" + details), json);
+    }
+
+    @Test
+    void testEmptyReservationDetailsBecomeNull() {
+        when(restTemplate.getForObject("http://reservation-service/reservations/{id}/details", String.class, "res1"))
+                .thenReturn("");
+        assertNull(paymentService.getReservationDetails("res1"));
+    }
+
+    @Test
+    void testEmptyRestBodyMeansUnknownReservationLikeGrpc() {
+        when(restTemplate.getForObject("http://reservation-service/reservations/{id}", String.class, "res1"))
+                .thenReturn("{\"id\":\"res1\"}");
+        when(restTemplate.getForObject("http://reservation-service/reservations/{id}", String.class, "res2"))
+                .thenReturn("");
+        assertTrue(paymentService.reservationExists("res1"));
+        assertFalse(paymentService.reservationExists("res2"));
+    }
+
+    @Test
+    void testGrpcTransportChecksReservations() {
+        GrpcLookupClient grpcLookupClient = mock(GrpcLookupClient.class);
+        ReflectionTestUtils.setField(paymentService, "grpcLookupClient", grpcLookupClient);
+        when(grpcLookupClient.reservationExists("res1")).thenReturn(true);
+        assertTrue(paymentService.reservationExists("res1"));
+        assertFalse(paymentService.reservationExists("res2"));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testGrpcTransportTreatsMissingReservationIdAsUnknown() {
+        LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+        GrpcLookupClient grpcLookupClient = new GrpcLookupClient(loadBalancerClient, new SimpleMeterRegistry(), Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(paymentService, "grpcLookupClient", grpcLookupClient);
+        try {
+            assertFalse(paymentService.reservationExists(null));
+            assertFalse(paymentService.reservationExists(""));
+            verifyNoInteractions(loadBalancerClient, restTemplate);
+        } finally {
+            grpcLookupClient.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package fact.it.paymentservice;
+
+import fact.it.paymentservice.grpc.GrpcLookupClient;
+import fact.it.paymentservice.model.Payment;
+import fact.it.paymentservice.repository.PaymentRepository;
+import fact.it.paymentservice.tiering.PaymentArchive;
+import fact.it.paymentservice.tiering.PaymentTieringJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentTieringJobTest {
+
+    private static final String ARCHIVED_URL = "http://reservation-service/reservations/archived";
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentArchive paymentArchive = mock(PaymentArchive.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testMovesSettledPaymentsOfArchivedReservations() {
+        Payment archivedReservation = new Payment("p1", "r1", 100.0, "2020-01-01", "Paid");
+        Payment liveReservation = new Payment("p2", "r2", 50.0, "2020-01-02", "Paid");
+        Payment later = new Payment("p3", "r1", 20.0, "2020-01-03", "Paid");
+        Set<String> settled = Set.of("Paid");
+        when(paymentRepository.findByStatusInOrderByIdAsc(settled, Limit.of(2))).thenReturn(List.of(archivedReservation, liveReservation));
+        when(paymentRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(settled, "p2", Limit.of(2))).thenReturn(List.of(later));
+        when(restTemplate.postForObject(eq(ARCHIVED_URL), any(), eq(String[].class))).thenReturn(new String[]{"r1"});
+
+        new PaymentTieringJob(paymentRepository, paymentArchive, restTemplate, Optional.empty(), meterRegistry, settled, 2, 100, 0).archive();
+
+        verify(paymentArchive).store(List.of(archivedReservation));
+        verify(paymentArchive).store(List.of(later));
+        verify(paymentRepository).deleteAllById(List.of("p1"));
+        verify(paymentRepository).deleteAllById(List.of("p3"));
+        verify(restTemplate, times(2)).postForObject(eq(ARCHIVED_URL), any(), eq(String[].class));
+        assertEquals(2, meterRegistry.get("tiering.archived").counter().count());
+    }
+
+    @Test
+    void testReservationServiceFailureMovesNothing() {
+        when(paymentRepository.findByStatusInOrderByIdAsc(any(), any()))
+                .thenReturn(List.of(new Payment("p1", "r1", 100.0, "2020-01-01", "Paid")));
+        when(restTemplate.postForObject(eq(ARCHIVED_URL), any(), eq(String[].class)))
+                .thenThrow(new IllegalStateException("unavailable"));
+
+        new PaymentTieringJob(paymentRepository, paymentArchive, restTemplate, Optional.empty(), meterRegistry, Set.of("Paid"), 2, 100, 0).archive();
+
+        verify(paymentArchive, never()).store(any());
+        verify(paymentRepository, never()).deleteAllById(any());
+        assertEquals(1, meterRegistry.get("tiering.runs").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void testRunStopsAtTheLimitAndTheNextRunResumesAfterIt() {
+        Payment first = new Payment("p1", "r1", 100.0, "2020-01-01", "Paid");
+        Payment second = new Payment("p2", "r2", 50.0, "2020-01-02", "Paid");
+        Payment third = new Payment("p3", "r3", 20.0, "2020-01-03", "Paid");
+        Set<String> settled = Set.of("Paid");
+        when(paymentRepository.findByStatusInOrderByIdAsc(settled, Limit.of(2))).thenReturn(List.of(first, second));
+        when(paymentRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(settled, "p2", Limit.of(2))).thenReturn(List.of(third));
+        when(restTemplate.postForObject(eq(ARCHIVED_URL), any(), eq(String[].class))).thenReturn(new String[0]);
+        PaymentTieringJob job = new PaymentTieringJob(paymentRepository, paymentArchive, restTemplate, Optional.empty(), meterRegistry, settled, 2, 2, 0);
+
+        job.archive();
+        verify(paymentRepository, never()).findByStatusInAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+
+        job.archive();
+        verify(paymentRepository, times(1)).findByStatusInOrderByIdAsc(settled, Limit.of(2));
+        verify(paymentRepository).findByStatusInAndIdGreaterThanOrderByIdAsc(settled, "p2", Limit.of(2));
+
+        // The previous run reached the end, so this one starts over
+        job.archive();
+        verify(paymentRepository, times(2)).findByStatusInOrderByIdAsc(settled, Limit.of(2));
+    }
+
+    @Test
+    void testAsksReservationServiceOverGrpcWhenConfigured() {
+        GrpcLookupClient grpcLookupClient = mock(GrpcLookupClient.class);
+        Payment payment = new Payment("p1", "r1", 100.0, "2020-01-01", "Paid");
+        when(paymentRepository.findByStatusInOrderByIdAsc(any(), any())).thenReturn(List.of(payment));
+        when(grpcLookupClient.archivedReservations(Set.of("r1"))).thenReturn(Set.of("r1"));
+
+        new PaymentTieringJob(paymentRepository, paymentArchive, restTemplate, Optional.of(grpcLookupClient), meterRegistry, Set.of("Paid"), 2, 100, 0).archive();
+
+        verify(paymentArchive).store(List.of(payment));
+        verifyNoInteractions(restTemplate);
+    }
+}
@@ -0,0 +1,122 @@
+package fact.it.reservationservice.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Marks booked days per motorbike in a bitset row (one bit per day, so overlapping reservations
+// count once). The reservations are split in halves with fork/join until a slice is at most
+// `threshold` long; each slice fills its own rows and the halves are OR-ed together on the way up.
+public final class OccupancyCalculator {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private OccupancyCalculator() {
+    }
+
+    // rows[motorbike] is null for a motorbike without bookings in the range
+    public static long[][] occupancy(ReservationDays reservations, int motorbikes, int days, int threshold) {
+        return ForkJoinPool.commonPool().invoke(
+                new SliceTask(reservations, 0, reservations.size(), motorbikes, words(days), threshold));
+    }
+
+    // Booked days in [fromDay, toDay)
+    public static int bookedDays(long[] row, int fromDay, int toDay) {
+        if (row == null || fromDay >= toDay) {
+            return 0;
+        }
+        int firstWord = fromDay >>> 6;
+        int lastWord = (toDay - 1) >>> 6;
+        long firstMask = -1L << fromDay;
+        long lastMask = -1L >>> (63 - ((toDay - 1) & 63));
+        if (firstWord == lastWord) {
+            return Long.bitCount(row[firstWord] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(row[firstWord] & firstMask);
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            count += Long.bitCount(row[word]);
+        }
+        return count + Long.bitCount(row[lastWord] & lastMask);
+    }
+
+    private static int words(int days) {
+        return (days + 63) >>> 6;
+    }
+
+    // Sets bits [fromDay, toDay] (inclusive)
+    private static void mark(long[] row, int fromDay, int toDay) {
+        int firstWord = fromDay >>> 6;
+        int lastWord = toDay >>> 6;
+        long firstMask = -1L << fromDay;
+        long lastMask = -1L >>> (63 - (toDay & 63));
+        if (firstWord == lastWord) {
+            row[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        row[firstWord] |= firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            row[word] = -1L;
+        }
+        row[lastWord] |= lastMask;
+    }
+
+    private static final class SliceTask extends RecursiveTask<long[][]> {
+
+        private final ReservationDays reservations;
+        private final int from;
+        private final int to;
+        private final int motorbikes;
+        private final int words;
+        private final int threshold;
+
+        SliceTask(ReservationDays reservations, int from, int to, int motorbikes, int words, int threshold) {
+            this.reservations = reservations;
+            this.from = from;
+            this.to = to;
+            this.motorbikes = motorbikes;
+            this.words = words;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from <= threshold) {
+                return fill();
+            }
+            int middle = (from + to) >>> 1;
+            SliceTask left = new SliceTask(reservations, from, middle, motorbikes, words, threshold);
+            SliceTask right = new SliceTask(reservations, middle, to, motorbikes, words, threshold);
+            left.fork();
+            long[][] merged = right.compute();
+            long[][] other = left.join();
+            for (int motorbike = 0; motorbike < motorbikes; motorbike++) {
+                long[] row = other[motorbike];
+                if (row == null) {
+                    continue;
+                }
+                if (merged[motorbike] == null) {
+                    merged[motorbike] = row;
+                    continue;
+                }
+                long[] target = merged[motorbike];
+                for (int word = 0; word < words; word++) {
+                    target[word] |= row[word];
+                }
+            }
+            return merged;
+        }
+
+        private long[][] fill() {
+            long[][] rows = new long[motorbikes][];
+            for (int i = from; i < to; i++) {
+                int motorbike = reservations.motorbike(i);
+                long[] row = rows[motorbike];
+                if (row == null) {
+                    row = new long[words];
+                    rows[motorbike] = row;
+                }
+                mark(row, reservations.firstDay(i), reservations.lastDay(i));
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package fact.it.reservationservice.analytics;
+
+import java.util.Arrays;
+
+// Reservations reduced to three primitive columns: motorbike index, first and last booked day
+// (both inclusive, as offsets from the start of the analysed range). About 12 bytes per
+// reservation instead of a Reservation object with four Strings.
+public class ReservationDays {
+
+    private int[] motorbikes = new int[1024];
+    private int[] firstDays = new int[1024];
+    private int[] lastDays = new int[1024];
+    private int size;
+
+    public void add(int motorbike, int firstDay, int lastDay) {
+        if (size == motorbikes.length) {
+            int capacity = size * 2;
+            motorbikes = Arrays.copyOf(motorbikes, capacity);
+            firstDays = Arrays.copyOf(firstDays, capacity);
+            lastDays = Arrays.copyOf(lastDays, capacity);
+        }
+        motorbikes[size] = motorbike;
+        firstDays[size] = firstDay;
+        lastDays[size] = lastDay;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int motorbike(int index) {
+        return motorbikes[index];
+    }
+
+    int firstDay(int index) {
+        return firstDays[index];
+    }
+
+    int lastDay(int index) {
+        return lastDays[index];
+    }
+}
@@ -0,0 +1,230 @@
+package fact.it.reservationservice.analytics;
+
+import fact.it.reservationservice.dto.MotorbikeUtilizationDTO;
+import fact.it.reservationservice.dto.UtilizationPeriodDTO;
+import fact.it.reservationservice.dto.UtilizationReportDTO;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Booked days / available days per motorbike and for the whole fleet, per week or month.
+// A reservation books every day from its startDate to its endDate, both inclusive.
+@Service
+public class UtilizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(UtilizationService.class);
+
+    private static final String MOTORBIKES_URL = "http://motorbike-service/motorbikes";
+    private static final long MAX_DAYS = 3660;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationArchive reservationArchive;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${tiering.retention:365d}")
+    private Duration retention = Duration.ofDays(365);
+
+    @Value("${reservation.analytics.fork-threshold:" + OccupancyCalculator.DEFAULT_THRESHOLD + "}")
+    private int forkThreshold = OccupancyCalculator.DEFAULT_THRESHOLD;
+
+    // The only field of a motorbike the report needs
+    public record MotorbikeRef(Long id) {
+    }
+
+    public UtilizationReportDTO getUtilization(LocalDate from, LocalDate to, String granularity) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        int days = (int) Math.min(ChronoUnit.DAYS.between(from, to) + 1, Integer.MAX_VALUE);
+        if (days > MAX_DAYS) {
+            throw new IllegalArgumentException("Range is limited to " + MAX_DAYS + " days");
+        }
+        List<int[]> periods = periods(from, to, granularity);
+
+        // Fleet order fixes the motorbike indexes; without the fleet only booked motorbikes are known
+        List<Long> fleet = fleet();
+        Map<Long, Integer> indexes = new HashMap<>();
+        List<Long> motorbikeIds = new ArrayList<>();
+        if (fleet != null) {
+            for (Long id : fleet) {
+                if (id != null && indexes.putIfAbsent(id, motorbikeIds.size()) == null) {
+                    motorbikeIds.add(id);
+                }
+            }
+        }
+
+        ReservationDays reservationDays = new ReservationDays();
+        Consumer<Reservation> book = reservation -> {
+            Integer index = indexes.get(reservation.getMotorbikeId());
+            if (index == null) {
+                if (fleet != null || reservation.getMotorbikeId() == null) {
+                    return;
+                }
+                index = motorbikeIds.size();
+                indexes.put(reservation.getMotorbikeId(), index);
+                motorbikeIds.add(reservation.getMotorbikeId());
+            }
+            LocalDate start = parse(reservation.getStartDate());
+            LocalDate end = parse(reservation.getEndDate());
+            if (start == null || end == null || end.isBefore(start)) {
+                return;
+            }
+            int firstDay = (int) Math.max(0, ChronoUnit.DAYS.between(from, start));
+            int lastDay = (int) Math.min(days - 1, ChronoUnit.DAYS.between(from, end));
+            if (firstDay <= lastDay) {
+                reservationDays.add(index, firstDay, lastDay);
+            }
+        };
+
+        // Reservations that ended more than tiering.retention ago live in the archive, so a range
+        // reaching back that far reads both tiers. One caught in both by an interrupted tiering run
+        // counts once.
+        boolean readArchive = from.isBefore(LocalDate.now().minusDays(retention.toDays()));
+        Set<String> liveIds = new HashSet<>();
+        try (Stream<Reservation> reservations = reservationRepository
+                .streamByStartDateLessThanEqualAndEndDateGreaterThanEqual(to.toString(), from.toString())) {
+            reservations.forEach(reservation -> {
+                if (readArchive && reservation.getId() != null) {
+                    liveIds.add(reservation.getId());
+                }
+                book.accept(reservation);
+            });
+        }
+        if (readArchive) {
+            try (Stream<Reservation> archived = reservationArchive.streamOverlapping(from.toString(), to.toString())) {
+                archived.filter(reservation -> !liveIds.contains(reservation.getId())).forEach(book);
+            }
+        }
+
+        long[][] occupancy = OccupancyCalculator.occupancy(reservationDays, motorbikeIds.size(), days, forkThreshold);
+        return report(from, to, granularity, periods, motorbikeIds, occupancy, reservationDays.size());
+    }
+
+    private UtilizationReportDTO report(LocalDate from, LocalDate to, String granularity, List<int[]> periods,
+                                        List<Long> motorbikeIds, long[][] occupancy, long reservations) {
+        long[] fleetBooked = new long[periods.size()];
+        List<MotorbikeUtilizationDTO> motorbikes = new ArrayList<>();
+        TreeSet<Long> idle = new TreeSet<>();
+        for (int motorbike = 0; motorbike < motorbikeIds.size(); motorbike++) {
+            long[] row = occupancy[motorbike];
+            List<UtilizationPeriodDTO> motorbikePeriods = new ArrayList<>();
+            long booked = 0;
+            for (int p = 0; p < periods.size(); p++) {
+                int[] period = periods.get(p);
+                int periodBooked = OccupancyCalculator.bookedDays(row, period[0], period[1]);
+                fleetBooked[p] += periodBooked;
+                booked += periodBooked;
+                motorbikePeriods.add(period(from, period, periodBooked, period[1] - period[0]));
+            }
+            if (booked == 0) {
+                idle.add(motorbikeIds.get(motorbike));
+            }
+            MotorbikeUtilizationDTO dto = new MotorbikeUtilizationDTO();
+            dto.setMotorbikeId(motorbikeIds.get(motorbike));
+            dto.setBookedDays(booked);
+            dto.setAvailableDays(ChronoUnit.DAYS.between(from, to) + 1);
+            dto.setUtilization(ratio(booked, dto.getAvailableDays()));
+            dto.setPeriods(motorbikePeriods);
+            motorbikes.add(dto);
+        }
+        motorbikes.sort((a, b) -> Long.compare(a.getMotorbikeId(), b.getMotorbikeId()));
+
+        List<UtilizationPeriodDTO> fleetPeriods = new ArrayList<>();
+        long booked = 0;
+        for (int p = 0; p < periods.size(); p++) {
+            int[] period = periods.get(p);
+            fleetPeriods.add(period(from, period, fleetBooked[p], (long) (period[1] - period[0]) * motorbikeIds.size()));
+            booked += fleetBooked[p];
+        }
+
+        UtilizationReportDTO dto = new UtilizationReportDTO();
+        dto.setFrom(from.toString());
+        dto.setTo(to.toString());
+        dto.setGranularity(granularity);
+        dto.setFleetSize(motorbikeIds.size());
+        dto.setReservations(reservations);
+        dto.setBookedDays(booked);
+        dto.setAvailableDays((ChronoUnit.DAYS.between(from, to) + 1) * motorbikeIds.size());
+        dto.setUtilization(ratio(booked, dto.getAvailableDays()));
+        dto.setPeriods(fleetPeriods);
+        dto.setMotorbikes(motorbikes);
+        dto.setIdleMotorbikes(new ArrayList<>(idle));
+        return dto;
+    }
+
+    // Day offsets [start, end) of each week (Monday to Sunday) or calendar month, clipped to the range
+    static List<int[]> periods(LocalDate from, LocalDate to, String granularity) {
+        List<int[]> periods = new ArrayList<>();
+        LocalDate start = from;
+        while (!start.isAfter(to)) {
+            LocalDate next = switch (granularity) {
+                case "week" -> start.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+                case "month" -> start.with(TemporalAdjusters.firstDayOfNextMonth());
+                default -> throw new IllegalArgumentException("granularity must be week or month");
+            };
+            if (next.isAfter(to)) {
+                next = to.plusDays(1);
+            }
+            periods.add(new int[]{(int) ChronoUnit.DAYS.between(from, start), (int) ChronoUnit.DAYS.between(from, next)});
+            start = next;
+        }
+        return periods;
+    }
+
+    private static UtilizationPeriodDTO period(LocalDate from, int[] period, long booked, long available) {
+        return new UtilizationPeriodDTO(from.plusDays(period[0]).toString(), from.plusDays(period[1] - 1L).toString(),
+                booked, available, ratio(booked, available));
+    }
+
+    private static double ratio(long booked, long available) {
+        return available == 0 ? 0 : (double) booked / available;
+    }
+
+    private List<Long> fleet() {
+        try {
+            MotorbikeRef[] motorbikes = restTemplate.getForObject(MOTORBIKES_URL, MotorbikeRef[].class);
+            return motorbikes == null ? null : Stream.of(motorbikes).map(MotorbikeRef::id).toList();
+        } catch (Exception e) {
+            log.warn("Motorbike fleet lookup failed, reporting booked motorbikes only: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static LocalDate parse(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
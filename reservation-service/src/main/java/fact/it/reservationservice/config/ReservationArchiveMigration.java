@@ -0,0 +1,26 @@
+package fact.it.reservationservice.config;
+
+import fact.it.common.tiering.ArchiveCollectionMigration;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+// Creates reservations_archive and indexes reservations.endDate for the tiering job's scan
+@Component
+@ConditionalOnProperty(name = "tiering.enabled", matchIfMissing = true)
+public class ReservationArchiveMigration extends ArchiveCollectionMigration {
+
+    public ReservationArchiveMigration(MongoTemplate mongoTemplate, @Value("${tiering.compressor:zstd}") String compressor) {
+        super(mongoTemplate, ReservationArchive.COLLECTION, compressor);
+    }
+
+    @Override
+    protected void indexLiveCollection() {
+        mongoTemplate.indexOps(Reservation.class).ensureIndex(new Index().on("endDate", Sort.Direction.ASC).named("endDate"));
+    }
+}
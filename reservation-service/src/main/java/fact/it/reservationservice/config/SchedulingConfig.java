@@ -0,0 +1,10 @@
+package fact.it.reservationservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (see the integrity package) run on Boot's task scheduler
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
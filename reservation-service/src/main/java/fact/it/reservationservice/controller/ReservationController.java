@@ -1,13 +1,16 @@
 package fact.it.reservationservice.controller;
 
+import fact.it.reservationservice.analytics.UtilizationService;
 import fact.it.reservationservice.model.Reservation;
 import fact.it.reservationservice.service.ReservationService;
 import fact.it.reservationservice.dto.ReservationDetailsDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,11 +20,26 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private UtilizationService utilizationService;
+
     @GetMapping
     public List<Reservation> getAllReservations() {
         return reservationService.getAllReservations();
     }
 
+    // Booked days / available days per motorbike and fleet-wide, granularity week or month
+    @GetMapping("/analytics/utilization")
+    public ResponseEntity<?> getUtilization(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(defaultValue = "week") String granularity) {
+        try {
+            return ResponseEntity.ok(utilizationService.getUtilization(from, to, granularity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public Reservation getReservationById(@PathVariable String id) {
         return reservationService.getReservationById(id);
@@ -57,6 +75,18 @@ public class ReservationController {
         return ResponseEntity.ok(saved);
     }
 
+    // Bulk existence check for other services: returns the ids from the body that exist
+    @PostMapping("/existing")
+    public List<String> getExistingIds(@RequestBody List<String> ids) {
+        return reservationService.getExistingIds(ids);
+    }
+
+    // Bulk check for other services: returns the ids from the body that are in the archive tier
+    @PostMapping("/archived")
+    public List<String> getArchivedIds(@RequestBody List<String> ids) {
+        return reservationService.getArchivedIds(ids);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteReservation(@PathVariable String id) {
         reservationService.deleteReservation(id);
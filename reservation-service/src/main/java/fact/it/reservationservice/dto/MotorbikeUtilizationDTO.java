@@ -0,0 +1,14 @@
+package fact.it.reservationservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MotorbikeUtilizationDTO {
+    private Long motorbikeId;
+    private long bookedDays;
+    private long availableDays;
+    private double utilization;
+    private List<UtilizationPeriodDTO> periods;
+}
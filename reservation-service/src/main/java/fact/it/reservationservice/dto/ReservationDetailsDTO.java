@@ -5,6 +5,7 @@ import lombok.Data;
 @Data
 public class ReservationDetailsDTO {
     private String id;
+    // RawJson in passthrough mode (reservation.details.passthrough), otherwise the parsed Map
     private Object client;
     private Object motorbike;
     private String reservationDate;
@@ -0,0 +1,16 @@
+package fact.it.reservationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationPeriodDTO {
+    private String start;
+    private String end;  // last day, inclusive
+    private long bookedDays;
+    private long availableDays;
+    private double utilization;
+}
@@ -0,0 +1,20 @@
+package fact.it.reservationservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UtilizationReportDTO {
+    private String from;
+    private String to;
+    private String granularity;
+    private int fleetSize;
+    private long reservations;
+    private long bookedDays;
+    private long availableDays;
+    private double utilization;
+    private List<UtilizationPeriodDTO> periods;  // fleet-wide
+    private List<MotorbikeUtilizationDTO> motorbikes;
+    private List<Long> idleMotorbikes;
+}
@@ -0,0 +1,103 @@
+package fact.it.reservationservice.grpc;
+
+import fact.it.grpc.ClientLookupGrpc;
+import fact.it.grpc.LoadBalancedChannels;
+import fact.it.grpc.LookupProto;
+import fact.it.grpc.MotorbikeLookupGrpc;
+import io.grpc.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Client and motorbike lookups over the internal gRPC API, used instead of REST when
+// internal.transport=grpc. Instances are picked per call by the same load balancer as the REST
+// calls (see LoadBalancedChannels), from the instance lists in application.properties.
+@Component
+@ConditionalOnProperty(name = "internal.transport", havingValue = "grpc")
+public class GrpcLookupClient {
+
+    private static final String CLIENT_SERVICE = "client-service";
+    private static final String MOTORBIKE_SERVICE = "motorbike-service";
+
+    private final LoadBalancedChannels channels;
+    private final Duration deadline;
+
+    public GrpcLookupClient(LoadBalancerClient loadBalancerClient, MeterRegistry meterRegistry,
+                            @Value("${internal.grpc.deadline:2s}") Duration deadline) {
+        this.channels = new LoadBalancedChannels(loadBalancerClient, meterRegistry);
+        this.deadline = deadline;
+    }
+
+    private ClientLookupGrpc.ClientLookupBlockingStub clients(Channel channel) {
+        return ClientLookupGrpc.newBlockingStub(channel).withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private MotorbikeLookupGrpc.MotorbikeLookupBlockingStub motorbikes(Channel channel) {
+        return MotorbikeLookupGrpc.newBlockingStub(channel).withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Same shape as the REST body, so details responses don't change with the transport; null when
+    // unknown. A missing id is unknown too: proto fields can't hold null, so it never leaves here.
+    public Map<String, Object> getClient(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        LookupProto.Client client = channels.find(CLIENT_SERVICE, channel -> clients(channel)
+                .getClient(LookupProto.Id.newBuilder().setId(id).build()));
+        if (client == null) {
+            return null;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", client.getId());
+        body.put("name", client.hasName() ? client.getName() : null);
+        body.put("email", client.hasEmail() ? client.getEmail() : null);
+        body.put("phone", client.hasPhone() ? client.getPhone() : null);
+        body.put("address", client.hasAddress() ? client.getAddress() : null);
+        return body;
+    }
+
+    public Map<String, Object> getMotorbike(Long id) {
+        if (id == null) {
+            return null;
+        }
+        LookupProto.Motorbike motorbike = channels.find(MOTORBIKE_SERVICE, channel -> motorbikes(channel)
+                .getMotorbike(LookupProto.NumericId.newBuilder().setId(id).build()));
+        if (motorbike == null) {
+            return null;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", motorbike.getId());
+        body.put("make", motorbike.hasMake() ? motorbike.getMake() : null);
+        body.put("model", motorbike.hasModel() ? motorbike.getModel() : null);
+        body.put("year", motorbike.hasYear() ? motorbike.getYear() : null);
+        body.put("price", motorbike.getPrice());
+        return body;
+    }
+
+    // The ids from the request that client-service still has
+    public Set<String> existingClients(Collection<String> ids) {
+        return new HashSet<>(channels.call(CLIENT_SERVICE, channel -> clients(channel)
+                .existingClients(LookupProto.Ids.newBuilder().addAllIds(ids).build())).getIdsList());
+    }
+
+    public Set<Long> existingMotorbikes(Collection<Long> ids) {
+        return new HashSet<>(channels.call(MOTORBIKE_SERVICE, channel -> motorbikes(channel)
+                .existingMotorbikes(LookupProto.NumericIds.newBuilder().addAllIds(ids).build())).getIdsList());
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.close();
+    }
+}
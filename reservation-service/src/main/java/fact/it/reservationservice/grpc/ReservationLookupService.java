@@ -0,0 +1,73 @@
+package fact.it.reservationservice.grpc;
+
+import fact.it.grpc.LookupProto;
+import fact.it.grpc.ReservationLookupGrpc;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.service.ReservationService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// The ReservationLookup gRPC service: the same reads as GET /reservations/{id},
+// POST /reservations/existing (live and archived) and POST /reservations/archived, plus a batched
+// get, for the other services
+@Component
+public class ReservationLookupService extends ReservationLookupGrpc.ReservationLookupImplBase {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Override
+    public void getReservation(LookupProto.Id request, StreamObserver<LookupProto.Reservation> responseObserver) {
+        Reservation reservation = reservationService.getReservationById(request.getId());
+        if (reservation == null) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription("Reservation not found: " + request.getId()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(toMessage(reservation));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getReservations(LookupProto.Ids request, StreamObserver<LookupProto.Reservations> responseObserver) {
+        LookupProto.Reservations.Builder reservations = LookupProto.Reservations.newBuilder();
+        for (Reservation reservation : reservationService.getReservationsByIds(request.getIdsList())) {
+            reservations.addReservations(toMessage(reservation));
+        }
+        responseObserver.onNext(reservations.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void existingReservations(LookupProto.Ids request, StreamObserver<LookupProto.Ids> responseObserver) {
+        responseObserver.onNext(LookupProto.Ids.newBuilder().addAllIds(reservationService.getExistingIds(request.getIdsList())).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void archivedReservations(LookupProto.Ids request, StreamObserver<LookupProto.Ids> responseObserver) {
+        responseObserver.onNext(LookupProto.Ids.newBuilder().addAllIds(reservationService.getArchivedIds(request.getIdsList())).build());
+        responseObserver.onCompleted();
+    }
+
+    static LookupProto.Reservation toMessage(Reservation reservation) {
+        LookupProto.Reservation.Builder message = LookupProto.Reservation.newBuilder().setId(reservation.getId());
+        if (reservation.getClientId() != null) {
+            message.setClientId(reservation.getClientId());
+        }
+        if (reservation.getMotorbikeId() != null) {
+            message.setMotorbikeId(reservation.getMotorbikeId());
+        }
+        if (reservation.getReservationDate() != null) {
+            message.setReservationDate(reservation.getReservationDate());
+        }
+        if (reservation.getStartDate() != null) {
+            message.setStartDate(reservation.getStartDate());
+        }
+        if (reservation.getEndDate() != null) {
+            message.setEndDate(reservation.getEndDate());
+        }
+        return message.build();
+    }
+}
@@ -0,0 +1,119 @@
+package fact.it.reservationservice.integrity;
+
+import fact.it.common.batch.BulkLookup;
+import fact.it.common.batch.IntegritySweeper;
+import fact.it.reservationservice.grpc.GrpcLookupClient;
+import fact.it.reservationservice.model.OrphanedReservation;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.OrphanedReservationRepository;
+import fact.it.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Finds reservations whose client or motorbike has been deleted, with one bulk lookup per owning
+// service and batch (REST or gRPC, per internal.transport). Orphans are recorded in
+// orphaned_reservations. A reservation without a client or motorbike id is not an orphan of
+// anything, so it is left alone rather than flagged or archived.
+@Component
+@ConditionalOnProperty(name = "integrity.sweep.enabled", matchIfMissing = true)
+public class ReservationIntegritySweeper extends IntegritySweeper<Reservation> {
+
+    private static final String CLIENTS_EXISTING_URL = "http://client-service/clients/existing";
+    private static final String MOTORBIKES_EXISTING_URL = "http://motorbike-service/motorbikes/existing";
+
+    private final ReservationRepository reservationRepository;
+    private final OrphanedReservationRepository orphanedReservationRepository;
+    private final RestTemplate restTemplate;
+    private final GrpcLookupClient grpcLookupClient;
+
+    public ReservationIntegritySweeper(ReservationRepository reservationRepository,
+                                       OrphanedReservationRepository orphanedReservationRepository,
+                                       RestTemplate restTemplate,
+                                       Optional<GrpcLookupClient> grpcLookupClient,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${integrity.sweep.batch-size:500}") int batchSize,
+                                       @Value("${integrity.sweep.max-records-per-second:200}") double maxRecordsPerSecond,
+                                       @Value("${integrity.sweep.action:flag}") String action) {
+        super("reservation", meterRegistry, batchSize, maxRecordsPerSecond, action);
+        this.reservationRepository = reservationRepository;
+        this.orphanedReservationRepository = orphanedReservationRepository;
+        this.restTemplate = restTemplate;
+        this.grpcLookupClient = grpcLookupClient.orElse(null);
+    }
+
+    @Scheduled(initialDelayString = "${integrity.sweep.initial-delay:10m}", fixedDelayString = "${integrity.sweep.interval:6h}")
+    public void sweep() {
+        runExclusively();
+    }
+
+    @Override
+    protected List<Reservation> batchAfter(String lastId, int batchSize) {
+        return lastId == null
+                ? reservationRepository.findAllByOrderByIdAsc(Limit.of(batchSize))
+                : reservationRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+    }
+
+    @Override
+    protected String idOf(Reservation reservation) {
+        return reservation.getId();
+    }
+
+    @Override
+    protected int checkBatch(List<Reservation> batch) {
+        Set<String> clientIds = new LinkedHashSet<>();
+        Set<Long> motorbikeIds = new LinkedHashSet<>();
+        for (Reservation reservation : batch) {
+            if (reservation.getClientId() != null) {
+                clientIds.add(reservation.getClientId());
+            }
+            if (reservation.getMotorbikeId() != null) {
+                motorbikeIds.add(reservation.getMotorbikeId());
+            }
+        }
+        Set<String> existingClients = grpcLookupClient != null
+                ? grpcLookupClient.existingClients(clientIds)
+                : BulkLookup.found(restTemplate, CLIENTS_EXISTING_URL, clientIds, String[].class);
+        Set<Long> existingMotorbikes = grpcLookupClient != null
+                ? grpcLookupClient.existingMotorbikes(motorbikeIds)
+                : BulkLookup.found(restTemplate, MOTORBIKES_EXISTING_URL, motorbikeIds, Long[].class);
+
+        Map<String, String> reasons = new HashMap<>();
+        for (Reservation reservation : batch) {
+            if (reservation.getClientId() != null && !existingClients.contains(reservation.getClientId())) {
+                reasons.put(reservation.getId(), "client");
+            } else if (reservation.getMotorbikeId() != null && !existingMotorbikes.contains(reservation.getMotorbikeId())) {
+                reasons.put(reservation.getId(), "motorbike");
+            }
+        }
+        if (reasons.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        List<OrphanedReservation> orphans = new ArrayList<>();
+        for (Reservation reservation : reservationRepository.findAllById(reasons.keySet())) {
+            String reason = reasons.get(reservation.getId());
+            orphans.add(new OrphanedReservation(reservation.getId(), reservation, reason, isArchive(), now));
+            orphanFound(reason);
+        }
+        orphanedReservationRepository.saveAll(orphans);
+        if (isArchive()) {
+            reservationRepository.deleteAllById(orphans.stream().map(OrphanedReservation::getId).toList());
+        }
+        return orphans.size();
+    }
+}
@@ -0,0 +1,23 @@
+package fact.it.reservationservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// A reservation the integrity sweep found pointing at a client or motorbike that no longer exists.
+// Keyed by the reservation id, so finding the same orphan again overwrites rather than duplicates.
+// Holds a full copy, so an archived (removed) reservation can still be inspected or restored.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "orphaned_reservations")
+public class OrphanedReservation {
+    private String id;
+    private Reservation reservation;
+    private String reason;  // "client" or "motorbike"
+    private boolean archived;
+    private Instant detectedAt;
+}
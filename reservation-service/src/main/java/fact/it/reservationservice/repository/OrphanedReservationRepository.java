@@ -0,0 +1,7 @@
+package fact.it.reservationservice.repository;
+
+import fact.it.reservationservice.model.OrphanedReservation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface OrphanedReservationRepository extends MongoRepository<OrphanedReservation, String> {
+}
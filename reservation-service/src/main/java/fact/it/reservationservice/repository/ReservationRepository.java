@@ -1,8 +1,36 @@
 package fact.it.reservationservice.repository;
 
 import fact.it.reservationservice.model.Reservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends MongoRepository<Reservation, String> {
     // You can add custom query methods if needed
+
+    // Only the ids come back; used for bulk existence checks
+    @Query(fields = "{ '_id': 1 }")
+    List<Reservation> findByIdIn(Collection<String> ids);
+
+    // Keyset-paged scan in id order for the integrity sweep, carrying only the references
+    @Query(fields = "{ 'clientId': 1, 'motorbikeId': 1 }")
+    List<Reservation> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(fields = "{ 'clientId': 1, 'motorbikeId': 1 }")
+    List<Reservation> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Reservations overlapping [from, to] (ISO dates compare as strings), read through a cursor
+    // in batches with only the fields the utilization report needs
+    @Meta(cursorBatchSize = 1000)
+    @Query(fields = "{ 'motorbikeId': 1, 'startDate': 1, 'endDate': 1 }")
+    Stream<Reservation> streamByStartDateLessThanEqualAndEndDateGreaterThanEqual(String to, String from);
+
+    // Finished reservations for the tiering job, oldest first. Between is exclusive on both ends
+    // ($gt/$lt), so the lower bound keeps out end dates that aren't a date at all
+    List<Reservation> findByEndDateBetweenOrderByEndDateAsc(String after, String before, Limit limit);
 }
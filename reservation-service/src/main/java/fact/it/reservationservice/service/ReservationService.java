@@ -1,47 +1,111 @@
 package fact.it.reservationservice.service;
 
+import fact.it.common.json.RawJson;
+import fact.it.reservationservice.grpc.GrpcLookupClient;
 import fact.it.reservationservice.model.Reservation;
 import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class ReservationService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ReservationArchive reservationArchive;
+
     @Autowired
     private RestTemplate restTemplate;
 
-    private final String CLIENT_SERVICE_URL = "http://client-service:8082/clients/";
-    private final String MOTORBIKE_SERVICE_URL = "http://motorbike-service:8081/motorbikes/";
+    @Autowired
+    private SingleFlight singleFlight;
+
+    // Client and motorbike bodies are embedded in details responses as received (RawJson) instead
+    // of being parsed into Maps and serialized again
+    @Value("${reservation.details.passthrough:true}")
+    private boolean passthrough = true;
+
+    // Present when internal.transport=grpc: client and motorbike lookups then use gRPC instead of REST
+    @Autowired(required = false)
+    private GrpcLookupClient grpcLookupClient;
+
+    // URI templates, so http.client.requests is tagged per endpoint rather than per id
+    private final String CLIENT_SERVICE_URL = "http://client-service/clients/{id}";
+    private final String MOTORBIKE_SERVICE_URL = "http://motorbike-service/motorbikes/{id}";
 
     public List<Reservation> getAllReservations() {
         return reservationRepository.findAll();
     }
 
+    // Live collection first; finished reservations moved out by the tiering job come from the archive
     public Reservation getReservationById(String id) {
-        return reservationRepository.findById(id).orElse(null);
+        return reservationRepository.findById(id).orElseGet(() -> reservationArchive.findById(id));
     }
 
     public Reservation saveReservation(Reservation reservation) {
         return reservationRepository.save(reservation);
     }
 
+    // The stored reservations among the ids, live or archived; unknown ids are left out
+    public List<Reservation> getReservationsByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Reservation> reservations = new ArrayList<>(reservationRepository.findAllById(ids));
+        Set<String> remaining = new HashSet<>(ids);
+        reservations.forEach(reservation -> remaining.remove(reservation.getId()));
+        if (!remaining.isEmpty()) {
+            reservations.addAll(reservationArchive.findAllById(remaining));
+        }
+        return reservations;
+    }
+
+    // The subset of ids that belong to a stored reservation, live or archived
+    public List<String> getExistingIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<String> existing = new ArrayList<>(reservationRepository.findByIdIn(ids).stream().map(Reservation::getId).toList());
+        Set<String> remaining = new HashSet<>(ids);
+        existing.forEach(remaining::remove);
+        existing.addAll(reservationArchive.getExistingIds(remaining));
+        return existing;
+    }
+
+    // The subset of ids that have been moved to the archive tier
+    public List<String> getArchivedIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return reservationArchive.getExistingIds(ids);
+    }
+
     public void deleteReservation(String id) {
         reservationRepository.deleteById(id);
+        reservationArchive.deleteById(id);
     }
 
+    // An unknown id is a null lookup on both transports: NOT_FOUND over gRPC, an empty 200 body
+    // over REST (the GET endpoints answer null for a missing entity). A 404 counts as unknown too.
     public boolean clientExists(String clientId) {
         try {
-            restTemplate.getForObject(CLIENT_SERVICE_URL + clientId, Object.class);
-            return true;
+            return fetchClient(clientId) != null;
         } catch (HttpClientErrorException.NotFound e) {
             return false;
         }
@@ -49,8 +113,7 @@ public class ReservationService {
 
     public boolean motorbikeExists(Long motorbikeId) {
         try {
-            restTemplate.getForObject(MOTORBIKE_SERVICE_URL + motorbikeId, Object.class);
-            return true;
+            return fetchMotorbike(motorbikeId) != null;
         } catch (HttpClientErrorException.NotFound e) {
             return false;
         }
@@ -58,23 +121,48 @@ public class ReservationService {
 
     public Object getClientDetails(String clientId) {
         try {
-            return restTemplate.getForObject(CLIENT_SERVICE_URL + clientId, Object.class);
+            return fetchClient(clientId);
         } catch (Exception e) {
+            log.warn("Client lookup {} failed: {}", clientId, e.toString());
             return null;
         }
     }
 
     public Object getMotorbikeDetails(Long motorbikeId) {
         try {
-            return restTemplate.getForObject(MOTORBIKE_SERVICE_URL + motorbikeId, Object.class);
+            return fetchMotorbike(motorbikeId);
         } catch (Exception e) {
+            log.warn("Motorbike lookup {} failed: {}", motorbikeId, e.toString());
             return null;
         }
     }
 
+    // Identical lookups in flight at the same time share one downstream call
+    private Object fetchClient(String clientId) {
+        return singleFlight.execute(CLIENT_SERVICE_URL + "#" + clientId, () -> grpcLookupClient != null
+                ? grpcLookupClient.getClient(clientId)
+                : fetch(CLIENT_SERVICE_URL, clientId));
+    }
+
+    private Object fetchMotorbike(Long motorbikeId) {
+        return singleFlight.execute(MOTORBIKE_SERVICE_URL + "#" + motorbikeId, () -> grpcLookupClient != null
+                ? grpcLookupClient.getMotorbike(motorbikeId)
+                : fetch(MOTORBIKE_SERVICE_URL, motorbikeId));
+    }
+
+    private Object fetch(String uriTemplate, Object id) {
+        return passthrough
+                ? RawJson.of(restTemplate.getForObject(uriTemplate, String.class, id))
+                : restTemplate.getForObject(uriTemplate, Object.class, id);
+    }
+
     public Reservation updateReservation(String id, Reservation updatedReservation) {
         Reservation existing = reservationRepository.findById(id).orElse(null);
         if (existing == null) {
+            // Archived reservations are finished history: readable, but read-only
+            if (!reservationArchive.getExistingIds(List.of(id)).isEmpty()) {
+                throw new RuntimeException("Reservation " + id + " is archived and can no longer be changed");
+            }
             throw new RuntimeException("Reservation not found with id: " + id);
         }
         // Validate client and motorbike existence
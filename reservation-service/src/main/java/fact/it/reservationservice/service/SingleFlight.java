@@ -0,0 +1,74 @@
+package fact.it.reservationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Coalesces identical concurrent downstream lookups: the first caller for a key does the call,
+// callers arriving while it is in flight wait for and share its result (or its exception).
+// Nothing is cached once the call completes.
+@Component
+public class SingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${reservation.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.leaders = Counter.builder("reservation.coalescing.requests").tag("role", "leader").register(meterRegistry);
+        this.followers = Counter.builder("reservation.coalescing.requests").tag("role", "follower").register(meterRegistry);
+        Gauge.builder("reservation.coalescing.ratio", this, SingleFlight::ratio).register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            followers.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                // Followers see the leader's own exception, not the future's wrapper
+                throw SingleFlight.<RuntimeException>rethrow(e.getCause());
+            }
+        }
+        leaders.increment();
+        try {
+            T result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors and sneaky-thrown checked exceptions too, or followers would wait forever
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Rethrows any Throwable unchanged, checked ones included, without declaring it
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E rethrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    private double ratio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+}
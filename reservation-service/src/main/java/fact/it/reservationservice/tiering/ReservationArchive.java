@@ -0,0 +1,32 @@
+package fact.it.reservationservice.tiering;
+
+import fact.it.common.tiering.MongoArchive;
+import fact.it.reservationservice.model.Reservation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+// The cold tier: finished reservations moved out of the live collection by ReservationTieringJob.
+@Component
+public class ReservationArchive extends MongoArchive<Reservation> {
+
+    public static final String COLLECTION = "reservations_archive";
+
+    public ReservationArchive(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        super(mongoTemplate, meterRegistry, Reservation.class, COLLECTION, "reservation");
+    }
+
+    @Override
+    protected String idOf(Reservation reservation) {
+        return reservation.getId();
+    }
+
+    // Archived reservations that overlap [from, to]; same bounds as the live repository query
+    public Stream<Reservation> streamOverlapping(String from, String to) {
+        return stream(Query.query(Criteria.where("startDate").lte(to).and("endDate").gte(from)));
+    }
+}
@@ -0,0 +1,85 @@
+package fact.it.reservationservice.tiering;
+
+import fact.it.common.batch.PacedBatchJob;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+// Moves reservations whose endDate is more than `retention` ago into the archive tier, one batch
+// at a time: copy to the archive first, then delete from the live collection, so a run that stops
+// halfway leaves a reservation in both tiers (reads still find it) rather than in neither.
+@Component
+@ConditionalOnProperty(name = "tiering.enabled", matchIfMissing = true)
+public class ReservationTieringJob extends PacedBatchJob {
+
+    // Sorts before every ISO date and after "" and whitespace, so a blank endDate is never past
+    // retention
+    static final String NO_END_DATE = "0";
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationArchive reservationArchive;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter archived;
+
+    public ReservationTieringJob(ReservationRepository reservationRepository,
+                                 ReservationArchive reservationArchive,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${tiering.retention:365d}") Duration retention,
+                                 @Value("${tiering.batch-size:500}") int batchSize,
+                                 @Value("${tiering.max-records-per-second:500}") double maxRecordsPerSecond) {
+        super("tiering", "reservation", meterRegistry, maxRecordsPerSecond);
+        this.reservationRepository = reservationRepository;
+        this.reservationArchive = reservationArchive;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("tiering.archived").tag("entity", "reservation").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${tiering.initial-delay:15m}", fixedDelayString = "${tiering.interval:24h}")
+    public void archive() {
+        runExclusively();
+    }
+
+    @Override
+    protected long run() {
+        // ISO dates compare as strings; a reservation ending before the cutoff is past retention
+        String cutoff = LocalDate.now().minusDays(retention.toDays()).toString();
+        long moved = 0;
+        while (true) {
+            long batchStart = System.nanoTime();
+            List<Reservation> batch = reservationRepository.findByEndDateBetweenOrderByEndDateAsc(NO_END_DATE, cutoff, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return moved;
+            }
+            reservationArchive.store(batch);
+            reservationRepository.deleteAllById(batch.stream().map(Reservation::getId).toList());
+            archived.increment(batch.size());
+            moved += batch.size();
+            if (batch.size() < batchSize) {
+                return moved;
+            }
+            pace(batch.size(), batchStart);
+        }
+    }
+
+    @Override
+    protected void completed(long moved) {
+        log.info("Moved {} finished reservations to {}", moved, ReservationArchive.COLLECTION);
+    }
+
+    @Override
+    protected void failed(RuntimeException e) {
+        log.warn("Reservation tiering stopped: {}", e.toString());
+    }
+}
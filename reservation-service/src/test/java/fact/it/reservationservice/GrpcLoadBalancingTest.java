@@ -0,0 +1,123 @@
+package fact.it.reservationservice;
+
+import com.sun.net.httpserver.HttpServer;
+import fact.it.grpc.ClientLookupGrpc;
+import fact.it.grpc.LookupProto;
+import fact.it.reservationservice.service.ReservationService;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The gRPC lookups go through the same instance list, health checks, least-loaded selection and
+// ejection as the REST ones. Each stand-in instance has an HTTP health endpoint and a gRPC port.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.loadbalancer.health-check.interval=100ms",
+        "reservation.coalescing.enabled=false",
+        "tiering.enabled=false",
+        "integrity.sweep.enabled=false",
+        "grpc.server.enabled=false",
+        "internal.transport=grpc"
+})
+class GrpcLoadBalancingTest {
+
+    private static final List<HttpServer> healthServers = new ArrayList<>();
+    private static final List<Server> grpcServers = new ArrayList<>();
+    private static final List<AtomicInteger> hits = new ArrayList<>();
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @DynamicPropertySource
+    static void clientInstances(DynamicPropertyRegistry registry) throws IOException {
+        for (int i = 0; i < 3; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            HttpServer health = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            health.createContext("/actuator/health", exchange -> {
+                byte[] body = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            health.start();
+            Server grpc = NettyServerBuilder.forAddress(new InetSocketAddress("localhost", 0))
+                    .addService(new ClientLookupGrpc.ClientLookupImplBase() {
+                        @Override
+                        public void getClient(LookupProto.Id request, StreamObserver<LookupProto.Client> responseObserver) {
+                            counter.incrementAndGet();
+                            if (!request.getId().equals("client1")) {
+                                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                                return;
+                            }
+                            responseObserver.onNext(LookupProto.Client.newBuilder().setId("client1").build());
+                            responseObserver.onCompleted();
+                        }
+                    })
+                    .build()
+                    .start();
+            healthServers.add(health);
+            grpcServers.add(grpc);
+            hits.add(counter);
+            String instance = "spring.cloud.discovery.client.simple.instances.client-service[" + i + "]";
+            registry.add(instance + ".uri", () -> "http://localhost:" + health.getAddress().getPort());
+            registry.add(instance + ".metadata.grpc-port", grpc::getPort);
+        }
+    }
+
+    @AfterAll
+    static void stopServers() {
+        healthServers.forEach(server -> server.stop(0));
+        grpcServers.forEach(Server::shutdownNow);
+    }
+
+    @Test
+    void testLookupsSpreadAndFailingInstancesAreEjected() {
+        for (int i = 0; i < 90; i++) {
+            assertNotNull(reservationService.getClientDetails("client1"));
+        }
+        for (AtomicInteger counter : hits) {
+            assertTrue(counter.get() >= 20 && counter.get() <= 40, "uneven spread: " + hits);
+        }
+
+        // An unknown id is an answer, not a failure: no instance is ejected for it
+        for (int i = 0; i < 9; i++) {
+            assertFalse(reservationService.clientExists("unknown"));
+        }
+        int[] before = hits.stream().mapToInt(AtomicInteger::get).toArray();
+        for (int i = 0; i < 30; i++) {
+            assertNotNull(reservationService.getClientDetails("client1"));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertTrue(hits.get(i).get() > before[i], "instance " + i + " was ejected: " + hits);
+        }
+
+        // The gRPC port goes away while the health check stays UP: only passive ejection catches it,
+        // after loadbalancer.ejection-threshold (3) failed calls
+        grpcServers.get(0).shutdownNow();
+        int failed = 0;
+        for (int i = 0; i < 60; i++) {
+            if (reservationService.getClientDetails("client1") == null) {
+                failed++;
+            }
+        }
+        assertEquals(3, failed);
+    }
+}
@@ -0,0 +1,96 @@
+package fact.it.reservationservice;
+
+import com.sun.net.httpserver.HttpServer;
+import fact.it.reservationservice.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.loadbalancer.health-check.interval=100ms",
+        "reservation.coalescing.enabled=false",
+        "tiering.enabled=false",
+        "integrity.sweep.enabled=false",
+        "grpc.server.enabled=false"
+})
+class LoadBalancingTest {
+
+    private static final List<HttpServer> servers = new ArrayList<>();
+    private static final List<AtomicInteger> hits = new ArrayList<>();
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void clientInstances(DynamicPropertyRegistry registry) throws IOException {
+        for (int i = 0; i < 3; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/clients/", exchange -> {
+                counter.incrementAndGet();
+                respond(exchange, "{\"id\":\"client1\"}");
+            });
+            server.createContext("/actuator/health", exchange -> respond(exchange, "{\"status\":\"UP\"}"));
+            server.start();
+            servers.add(server);
+            hits.add(counter);
+            registry.add("spring.cloud.discovery.client.simple.instances.client-service[" + i + "].uri",
+                    () -> "http://localhost:" + server.getAddress().getPort());
+        }
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @AfterAll
+    static void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void testRequestsSpreadEvenlyAndFailOver() {
+        for (int i = 0; i < 90; i++) {
+            assertNotNull(reservationService.getClientDetails("client1"));
+        }
+        for (AtomicInteger counter : hits) {
+            assertTrue(counter.get() >= 20 && counter.get() <= 40, "uneven spread: " + hits);
+        }
+
+        servers.get(0).stop(0);
+        int before = hits.get(0).get();
+        for (int i = 0; i < 30; i++) {
+            assertNotNull(reservationService.getClientDetails("client1"));
+        }
+        assertEquals(before, hits.get(0).get());
+        assertEquals(120, hits.stream().mapToInt(AtomicInteger::get).sum());
+        // Timed per downstream and URI template, not per id
+        assertEquals(120, meterRegistry.get("http.client.requests")
+                .tag("client.name", "client-service")
+                .tag("uri", "/clients/{id}")
+                .tag("outcome", "SUCCESS")
+                .timer().count());
+    }
+}
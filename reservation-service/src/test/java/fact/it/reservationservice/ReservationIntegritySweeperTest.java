@@ -0,0 +1,117 @@
+package fact.it.reservationservice;
+
+import fact.it.reservationservice.integrity.ReservationIntegritySweeper;
+import fact.it.reservationservice.model.OrphanedReservation;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.OrphanedReservationRepository;
+import fact.it.reservationservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReservationIntegritySweeperTest {
+
+    private static final String CLIENTS_URL = "http://client-service/clients/existing";
+    private static final String MOTORBIKES_URL = "http://motorbike-service/motorbikes/existing";
+
+    private ReservationRepository reservationRepository;
+    private OrphanedReservationRepository orphanedReservationRepository;
+    private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Reservation valid = reservation("a1", "client1", 1L);
+    private final Reservation clientGone = reservation("a2", "client2", 1L);
+    private final Reservation motorbikeGone = reservation("a3", "client1", 2L);
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        orphanedReservationRepository = mock(OrphanedReservationRepository.class);
+        restTemplate = mock(RestTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Two batches of two: the second batch is read after the last id of the first
+        when(reservationRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(valid, clientGone));
+        when(reservationRepository.findByIdGreaterThanOrderByIdAsc("a2", Limit.of(2))).thenReturn(List.of(motorbikeGone));
+        when(reservationRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return Stream.of(valid, clientGone, motorbikeGone).filter(r -> ids.contains(r.getId())).toList();
+        });
+        when(restTemplate.postForObject(eq(CLIENTS_URL), any(), eq(String[].class))).thenReturn(new String[]{"client1"});
+        when(restTemplate.postForObject(eq(MOTORBIKES_URL), any(), eq(Long[].class))).thenReturn(new Long[]{1L});
+    }
+
+    private ReservationIntegritySweeper sweeper(String action) {
+        return new ReservationIntegritySweeper(reservationRepository, orphanedReservationRepository, restTemplate,
+                Optional.empty(), meterRegistry, 2, 0, action);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlagsOrphansWithOneLookupPerServicePerBatch() {
+        sweeper("flag").sweep();
+
+        ArgumentCaptor<List<OrphanedReservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orphanedReservationRepository, times(2)).saveAll(saved.capture());
+        List<OrphanedReservation> orphans = saved.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(List.of("a2", "a3"), orphans.stream().map(OrphanedReservation::getId).toList());
+        assertEquals(List.of("client", "motorbike"), orphans.stream().map(OrphanedReservation::getReason).toList());
+        verify(restTemplate, times(2)).postForObject(eq(CLIENTS_URL), any(), eq(String[].class));
+        verify(restTemplate, times(2)).postForObject(eq(MOTORBIKES_URL), any(), eq(Long[].class));
+        verify(reservationRepository, never()).deleteAllById(any());
+
+        assertEquals(3, meterRegistry.get("integrity.sweep.records").counter().count());
+        assertEquals(2, meterRegistry.get("integrity.sweep.last.orphans").gauge().value());
+        assertEquals(1, meterRegistry.get("integrity.sweep.orphans").tag("reason", "client").counter().count());
+        assertEquals(1, meterRegistry.get("integrity.sweep.runs").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    void testArchiveRemovesOrphansFromLiveCollection() {
+        sweeper("archive").sweep();
+
+        verify(reservationRepository).deleteAllById(List.of("a2"));
+        verify(reservationRepository).deleteAllById(List.of("a3"));
+    }
+
+    @Test
+    void testLookupFailureStopsSweepWithoutFlagging() {
+        when(restTemplate.postForObject(eq(CLIENTS_URL), any(), eq(String[].class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        sweeper("flag").sweep();
+
+        verify(orphanedReservationRepository, never()).saveAll(any());
+        assertEquals(1, meterRegistry.get("integrity.sweep.runs").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void testReservationsWithoutReferencesAreNeitherFlaggedNorArchived() {
+        Reservation noClient = reservation("b1", null, 1L);
+        Reservation noMotorbike = reservation("b2", "client1", null);
+        when(reservationRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(noClient, noMotorbike));
+        when(reservationRepository.findByIdGreaterThanOrderByIdAsc("b2", Limit.of(2))).thenReturn(List.of());
+
+        sweeper("archive").sweep();
+
+        verify(orphanedReservationRepository, never()).saveAll(any());
+        verify(reservationRepository, never()).deleteAllById(any());
+        assertEquals(0, meterRegistry.get("integrity.sweep.last.orphans").gauge().value());
+    }
+
+    private static Reservation reservation(String id, String clientId, Long motorbikeId) {
+        return new Reservation(id, clientId, motorbikeId, "2024-06-01", "2024-06-10", "2024-06-15");
+    }
+}
@@ -0,0 +1,80 @@
+package fact.it.reservationservice;
+
+import fact.it.grpc.LookupProto;
+import fact.it.grpc.ReservationLookupGrpc;
+import fact.it.reservationservice.grpc.ReservationLookupService;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.service.ReservationService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReservationLookupServiceTest {
+    @Mock
+    private ReservationService reservationService;
+
+    @InjectMocks
+    private ReservationLookupService reservationLookupService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private ReservationLookupGrpc.ReservationLookupBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        server = NettyServerBuilder.forPort(0).directExecutor().addService(reservationLookupService).build().start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        stub = ReservationLookupGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testGetReservationMirrorsTheEntity() {
+        when(reservationService.getReservationById("1"))
+                .thenReturn(new Reservation("1", "client1", 1L, "2024-06-01", "2024-06-10", null));
+        LookupProto.Reservation reservation = stub.getReservation(LookupProto.Id.newBuilder().setId("1").build());
+        assertEquals("client1", reservation.getClientId());
+        assertEquals(1L, reservation.getMotorbikeId());
+        assertEquals("2024-06-10", reservation.getStartDate());
+        assertFalse(reservation.hasEndDate());
+    }
+
+    @Test
+    void testGetUnknownReservationIsNotFound() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.getReservation(LookupProto.Id.newBuilder().setId("missing").build()));
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void testBatchedGetAndExistenceCheck() {
+        when(reservationService.getReservationsByIds(List.of("1", "2")))
+                .thenReturn(List.of(new Reservation("2", "client1", null, null, null, null)));
+        when(reservationService.getExistingIds(List.of("1", "2"))).thenReturn(List.of("2"));
+        when(reservationService.getArchivedIds(List.of("1", "2"))).thenReturn(List.of("1"));
+        LookupProto.Ids ids = LookupProto.Ids.newBuilder().addAllIds(List.of("1", "2")).build();
+        LookupProto.Reservation reservation = stub.getReservations(ids).getReservations(0);
+        assertEquals("2", reservation.getId());
+        assertFalse(reservation.hasMotorbikeId());
+        assertEquals(List.of("2"), stub.existingReservations(ids).getIdsList());
+        assertEquals(List.of("1"), stub.archivedReservations(ids).getIdsList());
+    }
+}
@@ -1,16 +1,33 @@
 package fact.it.reservationservice;
 
+import fact.it.common.json.RawJson;
+import fact.it.reservationservice.grpc.GrpcLookupClient;
 import fact.it.reservationservice.model.Reservation;
 import fact.it.reservationservice.repository.ReservationRepository;
 import fact.it.reservationservice.service.ReservationService;
+import fact.it.reservationservice.service.SingleFlight;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.http.HttpStatus;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -18,6 +35,17 @@ class ReservationServiceTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private ReservationArchive reservationArchive;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(meterRegistry, true);
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -45,6 +73,30 @@ class ReservationServiceTest {
         assertEquals("1", found.getId());
     }
 
+    @Test
+    void testArchivedReservationsAreReadOnly() {
+        when(reservationRepository.findById("1")).thenReturn(Optional.empty());
+        when(reservationArchive.getExistingIds(List.of("1"))).thenReturn(List.of("1"));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> reservationService.updateReservation("1", reservation));
+        assertEquals("Reservation 1 is archived and can no longer be changed", e.getMessage());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetReservationByIdFallsBackToArchive() {
+        when(reservationRepository.findById("1")).thenReturn(Optional.empty());
+        when(reservationArchive.findById("1")).thenReturn(reservation);
+        assertEquals(reservation, reservationService.getReservationById("1"));
+    }
+
+    @Test
+    void testExistingIdsIncludeArchivedReservations() {
+        Reservation live = new Reservation("2", null, null, null, null, null);
+        when(reservationRepository.findByIdIn(List.of("1", "2", "3"))).thenReturn(List.of(live));
+        when(reservationArchive.getExistingIds(Set.of("1", "3"))).thenReturn(List.of("1"));
+        assertEquals(List.of("2", "1"), reservationService.getExistingIds(List.of("1", "2", "3")));
+    }
+
     @Test
     void testSaveReservation() {
         when(reservationRepository.save(reservation)).thenReturn(reservation);
@@ -57,5 +109,73 @@ class ReservationServiceTest {
         doNothing().when(reservationRepository).deleteById("1");
         assertDoesNotThrow(() -> reservationService.deleteReservation("1"));
         verify(reservationRepository, times(1)).deleteById("1");
+        verify(reservationArchive, times(1)).deleteById("1");
+    }
+
+    @Test
+    void testConcurrentClientLookupsShareOneCall() throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.getForObject("http://client-service/clients/{id}", String.class, "client1")).thenAnswer(invocation -> {
+            callStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "{\"id\":\"client1\"}";
+        });
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> reservationService.getClientDetails("client1"));
+        assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> reservationService.clientExists("client1"));
+        while (meterRegistry.get("reservation.coalescing.requests").tag("role", "follower").counter().count() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        assertEquals(new RawJson("{\"id\":\"client1\"}"), first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        verify(restTemplate, times(1)).getForObject("http://client-service/clients/{id}", String.class, "client1");
+    }
+
+    @Test
+    void testMissingMotorbikeIsReported() {
+        when(restTemplate.getForObject("http://motorbike-service/motorbikes/{id}", String.class, 1L))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        assertFalse(reservationService.motorbikeExists(1L));
+        assertNull(reservationService.getMotorbikeDetails(1L));
+    }
+
+    @Test
+    void testEmptyRestBodyMeansUnknownIdLikeGrpc() {
+        when(restTemplate.getForObject("http://client-service/clients/{id}", String.class, "client1")).thenReturn("");
+        when(restTemplate.getForObject("http://motorbike-service/motorbikes/{id}", String.class, 1L)).thenReturn(null);
+        assertFalse(reservationService.clientExists("client1"));
+        assertFalse(reservationService.motorbikeExists(1L));
+    }
+
+    @Test
+    void testGrpcTransportReplacesRestLookups() {
+        GrpcLookupClient grpcLookupClient = mock(GrpcLookupClient.class);
+        ReflectionTestUtils.setField(reservationService, "grpcLookupClient", grpcLookupClient);
+        when(grpcLookupClient.getClient("client1")).thenReturn(Map.of("id", "client1"));
+        when(grpcLookupClient.getMotorbike(1L)).thenReturn(null);
+        assertTrue(reservationService.clientExists("client1"));
+        assertEquals(Map.of("id", "client1"), reservationService.getClientDetails("client1"));
+        assertFalse(reservationService.motorbikeExists(1L));
+        assertNull(reservationService.getMotorbikeDetails(1L));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testGrpcTransportTreatsMissingIdsAsUnknown() {
+        LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+        GrpcLookupClient grpcLookupClient = new GrpcLookupClient(loadBalancerClient, meterRegistry, Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(reservationService, "grpcLookupClient", grpcLookupClient);
+        try {
+            assertFalse(reservationService.clientExists(null));
+            assertFalse(reservationService.clientExists(" "));
+            assertFalse(reservationService.motorbikeExists(null));
+            assertNull(reservationService.getClientDetails(null));
+            assertNull(reservationService.getMotorbikeDetails(null));
+            verifyNoInteractions(loadBalancerClient, restTemplate);
+        } finally {
+            grpcLookupClient.close();
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package fact.it.reservationservice;
+
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import fact.it.reservationservice.tiering.ReservationTieringJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReservationTieringJobTest {
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationArchive reservationArchive = mock(ReservationArchive.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testMovesFinishedReservationsInBatchesArchiveFirst() {
+        List<Reservation> first = List.of(reservation("1"), reservation("2"));
+        List<Reservation> second = List.of(reservation("3"));
+        String cutoff = LocalDate.now().minusDays(30).toString();
+        when(reservationRepository.findByEndDateBetweenOrderByEndDateAsc("0", cutoff, Limit.of(2))).thenReturn(first, second);
+
+        new ReservationTieringJob(reservationRepository, reservationArchive, meterRegistry, Duration.ofDays(30), 2, 0).archive();
+
+        InOrder inOrder = inOrder(reservationArchive, reservationRepository);
+        inOrder.verify(reservationArchive).store(first);
+        inOrder.verify(reservationRepository).deleteAllById(List.of("1", "2"));
+        inOrder.verify(reservationArchive).store(second);
+        inOrder.verify(reservationRepository).deleteAllById(List.of("3"));
+        assertEquals(3, meterRegistry.get("tiering.archived").counter().count());
+        assertEquals(1, meterRegistry.get("tiering.runs").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    void testFailedArchiveWriteKeepsLiveReservations() {
+        when(reservationRepository.findByEndDateBetweenOrderByEndDateAsc(anyString(), anyString(), any()))
+                .thenReturn(List.of(reservation("1")));
+        doThrow(new IllegalStateException("archive unavailable")).when(reservationArchive).store(any());
+
+        new ReservationTieringJob(reservationRepository, reservationArchive, meterRegistry, Duration.ofDays(30), 2, 0).archive();
+
+        verify(reservationRepository, never()).deleteAllById(any());
+        assertEquals(1, meterRegistry.get("tiering.runs").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void testBlankEndDatesAreNeverPastRetention() {
+        String lowerBound = "0";
+        String cutoff = LocalDate.now().minusDays(30).toString();
+        // The query bounds are exclusive; a blank endDate must fall outside them, a real one inside
+        for (String blank : List.of("", " ")) {
+            assertTrue(blank.compareTo(lowerBound) < 0);
+        }
+        assertTrue("0001-01-01".compareTo(lowerBound) > 0 && "2020-01-10".compareTo(cutoff) < 0);
+        when(reservationRepository.findByEndDateBetweenOrderByEndDateAsc(anyString(), anyString(), any())).thenReturn(List.of());
+
+        new ReservationTieringJob(reservationRepository, reservationArchive, meterRegistry, Duration.ofDays(30), 2, 0).archive();
+
+        verify(reservationRepository).findByEndDateBetweenOrderByEndDateAsc(lowerBound, cutoff, Limit.of(2));
+        verify(reservationRepository, never()).deleteAllById(any());
+    }
+
+    private static Reservation reservation(String id) {
+        return new Reservation(id, "client1", 1L, "2020-01-01", "2020-01-10", "2020-01-15");
+    }
+}
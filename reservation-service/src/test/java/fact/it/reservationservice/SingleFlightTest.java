@@ -0,0 +1,62 @@
+package fact.it.reservationservice;
+
+import fact.it.reservationservice.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry, true);
+
+    // Runs a leader that fails with the given throwable while a follower waits on it,
+    // and returns what the follower saw
+    private Throwable followerFailure(Throwable failure) throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> failing = () -> {
+            callStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sneakyThrow(failure);
+        };
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", failing));
+        assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> "unused"));
+        while (meterRegistry.get("reservation.coalescing.requests").tag("role", "follower").counter().count() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderFailure.getCause());
+        ExecutionException seen = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        return seen.getCause();
+    }
+
+    @Test
+    void testFollowersGetTheLeadersError() throws Exception {
+        StackOverflowError error = new StackOverflowError();
+        assertSame(error, followerFailure(error));
+        assertEquals("next", singleFlight.execute("key", () -> "next"));
+    }
+
+    @Test
+    void testFollowersGetTheLeadersCheckedExceptionUnwrapped() throws Exception {
+        IOException exception = new IOException("connection reset");
+        assertSame(exception, followerFailure(exception));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, E extends Throwable> T sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+}
@@ -0,0 +1,172 @@
+package fact.it.reservationservice;
+
+import fact.it.reservationservice.analytics.OccupancyCalculator;
+import fact.it.reservationservice.analytics.ReservationDays;
+import fact.it.reservationservice.analytics.UtilizationService;
+import fact.it.reservationservice.analytics.UtilizationService.MotorbikeRef;
+import fact.it.reservationservice.dto.MotorbikeUtilizationDTO;
+import fact.it.reservationservice.dto.UtilizationReportDTO;
+import fact.it.reservationservice.model.Reservation;
+import fact.it.reservationservice.repository.ReservationRepository;
+import fact.it.reservationservice.tiering.ReservationArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UtilizationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationArchive reservationArchive;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private UtilizationService utilizationService;
+
+    private final LocalDate from = LocalDate.parse("2024-01-01");  // a Monday
+    private final LocalDate to = LocalDate.parse("2024-01-14");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(reservationRepository.streamByStartDateLessThanEqualAndEndDateGreaterThanEqual("2024-01-14", "2024-01-01"))
+                .thenAnswer(invocation -> Stream.of(
+                        reservation(1L, "2024-01-01", "2024-01-03"),
+                        reservation(1L, "2024-01-02", "2024-01-05"),  // overlaps the first, counted once
+                        reservation(2L, "2023-12-30", "2024-01-02"),  // clipped to the range
+                        reservation(2L, "2024-01-13", "2024-01-20"),
+                        reservation(9L, "2024-01-01", "2024-01-14"),  // not in the fleet
+                        reservation(1L, "someday", "2024-01-09")));
+        when(reservationArchive.streamOverlapping(anyString(), anyString())).thenAnswer(invocation -> Stream.empty());
+    }
+
+    @Test
+    void testWeeklyUtilizationPerMotorbikeAndFleet() {
+        when(restTemplate.getForObject("http://motorbike-service/motorbikes", MotorbikeRef[].class)).thenReturn(fleet(1L, 2L, 3L));
+
+        UtilizationReportDTO report = utilizationService.getUtilization(from, to, "week");
+
+        assertEquals(3, report.getFleetSize());
+        assertEquals(4, report.getReservations());
+        assertEquals(List.of(3L), report.getIdleMotorbikes());
+        assertEquals(2, report.getPeriods().size());
+        assertEquals("2024-01-07", report.getPeriods().get(0).getEnd());
+        assertEquals(7, report.getPeriods().get(0).getBookedDays());
+        assertEquals(21, report.getPeriods().get(0).getAvailableDays());
+        assertEquals(2, report.getPeriods().get(1).getBookedDays());
+        assertEquals(9, report.getBookedDays());
+        assertEquals(9.0 / 42, report.getUtilization(), 1e-9);
+
+        MotorbikeUtilizationDTO first = report.getMotorbikes().get(0);
+        assertEquals(1L, first.getMotorbikeId());
+        assertEquals(5, first.getBookedDays());
+        assertEquals(14, first.getAvailableDays());
+        assertEquals(4, report.getMotorbikes().get(1).getBookedDays());
+    }
+
+    @Test
+    void testMonthlyPeriodsFollowCalendarMonths() {
+        when(restTemplate.getForObject("http://motorbike-service/motorbikes", MotorbikeRef[].class)).thenReturn(fleet(1L));
+        when(reservationRepository.streamByStartDateLessThanEqualAndEndDateGreaterThanEqual(anyString(), anyString()))
+                .thenAnswer(invocation -> Stream.of(reservation(1L, "2024-01-30", "2024-02-02")));
+
+        UtilizationReportDTO report = utilizationService.getUtilization(LocalDate.parse("2024-01-15"),
+                LocalDate.parse("2024-03-10"), "month");
+
+        assertEquals(List.of("2024-01-15", "2024-02-01", "2024-03-01"),
+                report.getPeriods().stream().map(p -> p.getStart()).toList());
+        assertEquals(List.of(2L, 2L, 0L), report.getPeriods().stream().map(p -> p.getBookedDays()).toList());
+        assertEquals(List.of(17L, 29L, 10L), report.getPeriods().stream().map(p -> p.getAvailableDays()).toList());
+    }
+
+    @Test
+    void testFleetLookupFailureFallsBackToBookedMotorbikes() {
+        when(restTemplate.getForObject("http://motorbike-service/motorbikes", MotorbikeRef[].class))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        UtilizationReportDTO report = utilizationService.getUtilization(from, to, "week");
+
+        assertEquals(List.of(1L, 2L, 9L), report.getMotorbikes().stream().map(MotorbikeUtilizationDTO::getMotorbikeId).toList());
+        assertEquals(14, report.getMotorbikes().get(2).getBookedDays());
+    }
+
+    @Test
+    void testInvalidRangeOrGranularityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> utilizationService.getUtilization(to, from, "week"));
+        assertThrows(IllegalArgumentException.class, () -> utilizationService.getUtilization(from, to, "day"));
+    }
+
+    @Test
+    void testForkJoinMatchesSingleSlice() {
+        Random random = new Random(42);
+        int motorbikes = 37;
+        int days = 400;
+        ReservationDays reservationDays = new ReservationDays();
+        for (int i = 0; i < 50_000; i++) {
+            int first = random.nextInt(days);
+            reservationDays.add(random.nextInt(motorbikes), first, Math.min(days - 1, first + random.nextInt(20)));
+        }
+
+        long[][] sequential = OccupancyCalculator.occupancy(reservationDays, motorbikes, days, Integer.MAX_VALUE);
+        long[][] parallel = OccupancyCalculator.occupancy(reservationDays, motorbikes, days, 1000);
+
+        for (int motorbike = 0; motorbike < motorbikes; motorbike++) {
+            assertArrayEquals(sequential[motorbike], parallel[motorbike]);
+            assertEquals(OccupancyCalculator.bookedDays(sequential[motorbike], 0, days),
+                    OccupancyCalculator.bookedDays(sequential[motorbike], 0, 130)
+                            + OccupancyCalculator.bookedDays(sequential[motorbike], 130, days));
+        }
+    }
+
+    private static MotorbikeRef[] fleet(Long... ids) {
+        return Stream.of(ids).map(MotorbikeRef::new).toArray(MotorbikeRef[]::new);
+    }
+
+    @Test
+    void testRangesPastRetentionAlsoReadTheArchive() {
+        when(restTemplate.getForObject("http://motorbike-service/motorbikes", MotorbikeRef[].class)).thenReturn(fleet(1L));
+        Reservation live = new Reservation("a1", "client1", 1L, "2023-12-01", "2024-01-01", "2024-01-02");
+        Reservation archived = new Reservation("a2", "client1", 1L, "2023-12-01", "2024-01-05", "2024-01-06");
+        when(reservationRepository.streamByStartDateLessThanEqualAndEndDateGreaterThanEqual("2024-01-14", "2024-01-01"))
+                .thenAnswer(invocation -> Stream.of(live));
+        // a1 is in both tiers, as after an interrupted tiering run
+        when(reservationArchive.streamOverlapping("2024-01-01", "2024-01-14")).thenAnswer(invocation -> Stream.of(live, archived));
+
+        UtilizationReportDTO report = utilizationService.getUtilization(from, to, "week");
+
+        assertEquals(2, report.getReservations());
+        assertEquals(4, report.getBookedDays());
+    }
+
+    @Test
+    void testRecentRangesOnlyReadTheLiveCollection() {
+        LocalDate recent = LocalDate.now().minusDays(7);
+        when(reservationRepository.streamByStartDateLessThanEqualAndEndDateGreaterThanEqual(anyString(), anyString()))
+                .thenAnswer(invocation -> Stream.empty());
+
+        utilizationService.getUtilization(recent, recent.plusDays(6), "week");
+
+        verify(reservationArchive, never()).streamOverlapping(anyString(), anyString());
+    }
+
+    private static Reservation reservation(Long motorbikeId, String startDate, String endDate) {
+        return new Reservation(null, "client1", motorbikeId, "2023-12-01", startDate, endDate);
+    }
+}